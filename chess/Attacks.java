@@ -0,0 +1,230 @@
+package chess;
+
+/**
+ * Tablas de ataque precalculadas sobre bitboards (bit = row * 8 + col).
+ * Se construyen una única vez al cargar la clase.
+ *
+ * Caballo, rey y capturas de peón tienen una máscara fija por casilla.
+ * Las piezas deslizantes usan "magic bitboards": las piezas que bloquean
+ * los rayos se multiplican por un número mágico y los bits altos del
+ * resultado indexan directamente la tabla de ataques de esa casilla.
+ */
+public class Attacks {
+
+    private static final int[][] ROOK_DIRS   = {{-1,0},{1,0},{0,-1},{0,1}};
+    private static final int[][] BISHOP_DIRS = {{-1,-1},{-1,1},{1,-1},{1,1}};
+
+    // Números mágicos para esta numeración de casillas (a8 = 0, h1 = 63)
+    private static final long[] ROOK_MAGICS = {
+        0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+        0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+        0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+        0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+        0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+        0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+        0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+        0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+        0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+        0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+        0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+        0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+        0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+        0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+        0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+        0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+        0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L, 0x08281A0520000408L,
+        0x0001104001000400L, 0x0018901008048400L, 0x00040A0210245280L, 0x000200210808A402L,
+        0x9140048410821200L, 0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+        0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L, 0x0080084A08040204L,
+        0x0040E2A80811244CL, 0x2505022008008108L, 0x0430220100420040L, 0x010A040420220040L,
+        0x1105000290400000L, 0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+        0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L, 0x1004080080220040L,
+        0x0001001011004024L, 0x0010044000805040L, 0x0914041200820100L, 0x0004821012821480L,
+        0x0024040500C05021L, 0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+        0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L, 0x8081110600002E00L,
+        0x2842101105000801L, 0x1100809008001025L, 0x00020202221C0400L, 0x0422014022009020L,
+        0x0210046102100C00L, 0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+        0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L, 0x0400200042021100L,
+        0x00004204850400C0L, 0x0200100410A42102L, 0x1040020801210102L, 0x0805040410420000L,
+        0x2884804130100200L, 0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+        0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L, 0x0402020801010201L
+    };
+
+    private static final int[][] KNIGHT_DELTAS = {
+        {-2,-1}, {-2,1}, {-1,-2}, {-1,2},
+        {1,-2}, {1,2}, {2,-1}, {2,1}
+    };
+    private static final int[][] KING_DELTAS = {
+        {-1,-1},{-1,0},{-1,1},
+        {0,-1},       {0,1},
+        {1,-1}, {1,0}, {1,1}
+    };
+    private static final int[][] WHITE_PAWN_DELTAS = {{-1,-1},{-1,1}};
+    private static final int[][] BLACK_PAWN_DELTAS = {{1,-1},{1,1}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    // [color.ordinal()][casilla]: casillas que captura un peón de ese color
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Casillas estrictamente entre dos casillas alineadas / línea completa que las une
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_TABLE;
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT_ATTACKS[sq] = stepAttacks(sq, KNIGHT_DELTAS);
+            KING_ATTACKS[sq] = stepAttacks(sq, KING_DELTAS);
+            PAWN_ATTACKS[PieceColor.WHITE.ordinal()][sq] = stepAttacks(sq, WHITE_PAWN_DELTAS);
+            PAWN_ATTACKS[PieceColor.BLACK.ordinal()][sq] = stepAttacks(sq, BLACK_PAWN_DELTAS);
+        }
+        ROOK_TABLE = initMagics(ROOK_DIRS, ROOK_MAGICS, ROOK_MASKS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = initMagics(BISHOP_DIRS, BISHOP_MAGICS, BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+        initLines();
+    }
+
+    private Attacks() {
+    }
+
+    // ============= Consultas =============
+
+    public static long knightAttacks(int sq) {
+        return KNIGHT_ATTACKS[sq];
+    }
+
+    public static long kingAttacks(int sq) {
+        return KING_ATTACKS[sq];
+    }
+
+    /**
+     * Casillas que ataca un peón de 'color' situado en 'sq'.
+     */
+    public static long pawnAttacks(PieceColor color, int sq) {
+        return PAWN_ATTACKS[color.ordinal()][sq];
+    }
+
+    public static long rookAttacks(int sq, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[sq]) * ROOK_MAGICS[sq]) >>> ROOK_SHIFTS[sq]);
+        return ROOK_TABLE[ROOK_OFFSETS[sq] + index];
+    }
+
+    public static long bishopAttacks(int sq, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[sq]) * BISHOP_MAGICS[sq]) >>> BISHOP_SHIFTS[sq]);
+        return BISHOP_TABLE[BISHOP_OFFSETS[sq] + index];
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    /**
+     * Casillas entre 'a' y 'b' (sin incluirlas), o 0 si no están alineadas.
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * Fila, columna o diagonal completa que pasa por 'a' y 'b', o 0 si no están alineadas.
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    // ============= Construcción de las tablas =============
+
+    private static void initLines() {
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) continue;
+                long bits = (1L << a) | (1L << b);
+                if ((rookAttacks(a, 0L) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = rookAttacks(a, 1L << b) & rookAttacks(b, 1L << a);
+                    LINE[a][b] = (rookAttacks(a, 0L) & rookAttacks(b, 0L)) | bits;
+                } else if ((bishopAttacks(a, 0L) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = bishopAttacks(a, 1L << b) & bishopAttacks(b, 1L << a);
+                    LINE[a][b] = (bishopAttacks(a, 0L) & bishopAttacks(b, 0L)) | bits;
+                }
+            }
+        }
+    }
+
+    private static long stepAttacks(int sq, int[][] deltas) {
+        long attacks = 0;
+        int row = sq >> 3, col = sq & 7;
+        for (int[] d : deltas) {
+            int r = row + d[0];
+            int c = col + d[1];
+            if (inBounds(r, c)) {
+                attacks |= 1L << ((r << 3) | c);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Rellena máscaras, desplazamientos y offsets, y devuelve la tabla
+     * con los ataques de cada casilla para todas las combinaciones de bloqueo.
+     */
+    private static long[] initMagics(int[][] dirs, long[] magics, long[] masks, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            masks[sq] = slidingAttacks(sq, 0L, dirs, true);
+            int bits = Long.bitCount(masks[sq]);
+            shifts[sq] = 64 - bits;
+            offsets[sq] = size;
+            size += 1 << bits;
+        }
+
+        long[] table = new long[size];
+        for (int sq = 0; sq < 64; sq++) {
+            // Recorre todos los subconjuntos de la máscara (truco de Carry-Rippler)
+            long subset = 0;
+            do {
+                int index = (int) ((subset * magics[sq]) >>> shifts[sq]);
+                table[offsets[sq] + index] = slidingAttacks(sq, subset, dirs, false);
+                subset = (subset - masks[sq]) & masks[sq];
+            } while (subset != 0);
+        }
+        return table;
+    }
+
+    /**
+     * Calcula los ataques recorriendo cada rayo (sólo para construir las tablas).
+     * Con 'relevantOnly' se omite la última casilla de cada rayo, que nunca
+     * influye en el resultado.
+     */
+    private static long slidingAttacks(int sq, long occupied, int[][] dirs, boolean relevantOnly) {
+        long attacks = 0;
+        int row = sq >> 3, col = sq & 7;
+        for (int[] dir : dirs) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while (inBounds(r, c)) {
+                if (relevantOnly && !inBounds(r + dir[0], c + dir[1])) break;
+                long bit = 1L << ((r << 3) | c);
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean inBounds(int r, int c) {
+        return (r >= 0 && r < 8 && c >= 0 && c < 8);
+    }
+}
@@ -8,16 +8,50 @@ public class Board {
 
     private ChessPiece[][] board;
 
+    // Bitboards (bit = row * 8 + col), sincronizados con 'board' en setPieceAt
+    private final long[] pieceBitboards = new long[ChessPiece.COUNT]; // por código de pieza
+    private final long[] colorBitboards = new long[2];                // por color
+    private long occupied;                                            // todas las piezas
+
+    // Parte del hash Zobrist que depende de las piezas (ver ChessGame.getPositionHash)
+    private long zobristKey;
+    // Hash Zobrist sólo de los peones (para PawnTable)
+    private long pawnKey;
+
+    // Listas de piezas por color (casillas, sin orden) y posición de cada casilla en su lista
+    private final int[][] pieceSquares = new int[2][64];
+    private final int[] pieceCount = new int[2];
+    private final int[] listIndex = new int[64];
+    private final int[] kingSquare = {-1, -1};
+
+    // Material + bonus posicional, BLANCAS menos NEGRAS, empaquetado (ver PieceSquare),
+    // y fase de la partida; ambos mantenidos en setPieceAt
+    private int pieceSquareScore;
+    private int phase;
+
     public Board() {
         board = new ChessPiece[8][8];
         initializeBoard();
     }
 
+    /**
+     * Copia independiente de otro tablero (las piezas son inmutables y se comparten).
+     */
+    public Board(Board other) {
+        board = new ChessPiece[8][8];
+        for (int sq = 0; sq < 64; sq++) {
+            ChessPiece piece = other.getPieceAt(sq);
+            if (piece != null) {
+                setPieceAt(sq >> 3, sq & 7, piece);
+            }
+        }
+    }
+
     private void initializeBoard() {
         // Peones
         for (int col = 0; col < 8; col++) {
-            board[1][col] = new ChessPiece(PieceType.PAWN, PieceColor.BLACK);
-            board[6][col] = new ChessPiece(PieceType.PAWN, PieceColor.WHITE);
+            setPieceAt(1, col, ChessPiece.of(PieceType.PAWN, PieceColor.BLACK));
+            setPieceAt(6, col, ChessPiece.of(PieceType.PAWN, PieceColor.WHITE));
         }
 
         // Piezas mayores
@@ -28,8 +62,8 @@ public class Board {
         };
 
         for (int col = 0; col < 8; col++) {
-            board[0][col] = new ChessPiece(majorPieces[col], PieceColor.BLACK);
-            board[7][col] = new ChessPiece(majorPieces[col], PieceColor.WHITE);
+            setPieceAt(0, col, ChessPiece.of(majorPieces[col], PieceColor.BLACK));
+            setPieceAt(7, col, ChessPiece.of(majorPieces[col], PieceColor.WHITE));
         }
     }
 
@@ -37,8 +71,136 @@ public class Board {
         return board[row][col];
     }
 
+    public ChessPiece getPieceAt(int square) {
+        return board[square >> 3][square & 7];
+    }
+
+    /**
+     * Coloca (o quita, si piece == null) una pieza y actualiza los bitboards,
+     * el hash Zobrist, las listas de piezas y la evaluación incremental.
+     */
     public void setPieceAt(int row, int col, ChessPiece piece) {
+        int sq = square(row, col);
+        long bit = 1L << sq;
+        ChessPiece old = board[row][col];
+        if (old != null) {
+            int index = old.getCode();
+            pieceBitboards[index] &= ~bit;
+            colorBitboards[old.getColor().ordinal()] &= ~bit;
+            occupied &= ~bit;
+            zobristKey ^= Zobrist.piece(index, sq);
+            pieceSquareScore -= PieceSquare.value(index, sq);
+            if (old.getType() == PieceType.PAWN) {
+                pawnKey ^= Zobrist.piece(index, sq);
+            }
+            phase -= PieceSquare.phase(index);
+            removeFromList(old.getColor().ordinal(), sq);
+            if (old.getType() == PieceType.KING) {
+                long kings = pieceBitboards[index];
+                kingSquare[old.getColor().ordinal()] = (kings != 0) ? Long.numberOfTrailingZeros(kings) : -1;
+            }
+        }
         board[row][col] = piece;
+        if (piece != null) {
+            int index = piece.getCode();
+            pieceBitboards[index] |= bit;
+            colorBitboards[piece.getColor().ordinal()] |= bit;
+            occupied |= bit;
+            zobristKey ^= Zobrist.piece(index, sq);
+            int side = piece.getColor().ordinal();
+            pieceSquareScore += PieceSquare.value(index, sq);
+            if (piece.getType() == PieceType.PAWN) {
+                pawnKey ^= Zobrist.piece(index, sq);
+            }
+            phase += PieceSquare.phase(index);
+            listIndex[sq] = pieceCount[side];
+            pieceSquares[side][pieceCount[side]++] = sq;
+            if (piece.getType() == PieceType.KING) {
+                kingSquare[side] = sq;
+            }
+        }
+    }
+
+    // Quita 'sq' de la lista moviendo a su hueco la última casilla
+    private void removeFromList(int side, int sq) {
+        int last = pieceSquares[side][--pieceCount[side]];
+        int index = listIndex[sq];
+        pieceSquares[side][index] = last;
+        listIndex[last] = index;
+    }
+
+    // --- Consultas sobre bitboards ---
+
+    /**
+     * Índice de casilla 0..63 (row * 8 + col) usado en los bitboards.
+     */
+    public static int square(int row, int col) {
+        return (row << 3) | col;
+    }
+
+    public long getPieces(PieceType type, PieceColor color) {
+        return pieceBitboards[ChessPiece.code(type, color)];
+    }
+
+    public long getPieces(PieceColor color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    // --- Listas de piezas ---
+
+    /**
+     * Número de piezas de 'color'; sus casillas son getPieceSquare(color, 0..n-1).
+     */
+    public int getPieceCount(PieceColor color) {
+        return pieceCount[color.ordinal()];
+    }
+
+    public int getPieceSquare(PieceColor color, int index) {
+        return pieceSquares[color.ordinal()][index];
+    }
+
+    /**
+     * Casilla del rey de 'color', o -1 si no hay rey en el tablero.
+     */
+    public int getKingSquare(PieceColor color) {
+        return kingSquare[color.ordinal()];
+    }
+
+    /**
+     * Hash Zobrist de las piezas, mantenido de forma incremental en setPieceAt.
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Hash Zobrist de los peones de ambos colores, mantenido en setPieceAt.
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Material y bonus posicional de BLANCAS menos los de NEGRAS,
+     * empaquetado en medio juego y final (ver PieceSquare.pack).
+     */
+    public int getPieceSquareScore() {
+        return pieceSquareScore;
+    }
+
+    /**
+     * Fase de la partida según el material que queda (ver PieceSquare.MAX_PHASE).
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    public int countPieces(PieceType type, PieceColor color) {
+        return Long.bitCount(getPieces(type, color));
     }
 
     /**
@@ -53,172 +215,289 @@ public class Board {
     }
 
     /**
-     * Devuelve los movimientos válidos de la pieza en (row,col),
-     * incluyendo enroque (para el rey), capturas, etc.
+     * Devuelve los movimientos legales de la pieza en (row,col),
+     * incluyendo enroque (para el rey), capturas, al paso, etc.
+     * Las cuatro promociones a una misma casilla se devuelven como un único Point.
      */
     public List<Point> getValidMoves(int row, int col, ChessGame game) {
         List<Point> validMoves = new ArrayList<>();
         ChessPiece piece = getPieceAt(row, col);
         if (piece == null) return validMoves;
 
-        switch (piece.getType()) {
-            case PAWN:
-                addPawnMoves(validMoves, piece, row, col);
-                break;
-            case ROOK:
-                addRookMoves(validMoves, row, col);
-                break;
-            case KNIGHT:
-                addKnightMoves(validMoves, row, col);
-                break;
-            case BISHOP:
-                addBishopMoves(validMoves, row, col);
-                break;
-            case QUEEN:
-                addRookMoves(validMoves, row, col);
-                addBishopMoves(validMoves, row, col);
-                break;
-            case KING:
-                addKingMoves(validMoves, row, col, game);
-                break;
+        int from = square(row, col);
+        int[] moves = new int[MAX_MOVES];
+        int count = generateMoves(piece.getColor(), game, moves);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            PieceType promo = Move.promotion(move);
+            if (Move.from(move) == from && (promo == null || promo == PieceType.QUEEN)) {
+                int to = Move.to(move);
+                validMoves.add(new Point(to >> 3, to & 7));
+            }
         }
-
         return validMoves;
     }
 
+    // ============= Generación de movimientos compactos (int) =============
+
+    /** Máximo de movimientos legales en una posición. */
+    public static final int MAX_MOVES = 256;
+
+    private static final PieceType[] PROMOTION_TYPES = {
+        PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT
+    };
+
+    /**
+     * Escribe en 'moves' (desde la posición 0) todos los movimientos legales de
+     * 'color' codificados como int (ver Move). Devuelve cuántos se escribieron.
+     * No reserva memoria: el buffer lo aporta quien llama.
+     *
+     * Los jaques y las piezas clavadas se calculan una sola vez por posición;
+     * así ningún movimiento generado deja al propio rey en jaque.
+     */
+    public int generateMoves(PieceColor color, ChessGame game, int[] moves) {
+        PieceColor enemy = opposite(color);
+        long own = getPieces(color);
+        int kingSq = getKingSquare(color);
+        int count = 0;
+
+        // Sin rey (posiciones montadas a mano) no hay jaques ni clavadas
+        long checkers = 0;
+        long pinned = 0;
+        if (kingSq >= 0) {
+            checkers = attackersTo(kingSq, enemy);
+            pinned = pinnedPieces(kingSq, color);
+            count = addKingMoves(moves, count, kingSq, color);
+
+            // Jaque doble: sólo puede moverse el rey
+            if (Long.bitCount(checkers) > 1) return count;
+        }
+
+        // Con un jaque simple hay que capturar al atacante o interponerse
+        long targetMask = ~own;
+        if (checkers != 0) {
+            int checkerSq = Long.numberOfTrailingZeros(checkers);
+            targetMask &= checkers | Attacks.between(kingSq, checkerSq);
+        }
+
+        int side = color.ordinal();
+        for (int i = 0; i < pieceCount[side]; i++) {
+            int sq = pieceSquares[side][i];
+            long allowed = targetMask;
+            // Una pieza clavada sólo puede moverse sobre la línea rey-atacante
+            if ((pinned & (1L << sq)) != 0) {
+                allowed &= Attacks.line(kingSq, sq);
+            }
+
+            switch (getPieceAt(sq).getType()) {
+                case PAWN:
+                    count = addPawnMoves(moves, count, sq, color, allowed, kingSq, game.getEnPassantSquare());
+                    break;
+                case ROOK:
+                    count = addTargets(moves, count, sq, Attacks.rookAttacks(sq, occupied) & allowed);
+                    break;
+                case KNIGHT:
+                    count = addTargets(moves, count, sq, Attacks.knightAttacks(sq) & allowed);
+                    break;
+                case BISHOP:
+                    count = addTargets(moves, count, sq, Attacks.bishopAttacks(sq, occupied) & allowed);
+                    break;
+                case QUEEN:
+                    count = addTargets(moves, count, sq, Attacks.queenAttacks(sq, occupied) & allowed);
+                    break;
+                default:
+                    // El rey ya se generó arriba
+                    break;
+            }
+        }
+
+        if (kingSq >= 0 && checkers == 0) {
+            count = addCastlingMoves(moves, count, kingSq, color, game);
+        }
+        return count;
+    }
+
     // --- Movimientos del peón ---
-    private void addPawnMoves(List<Point> vm, ChessPiece piece, int row, int col) {
-        int direction = (piece.getColor() == PieceColor.WHITE) ? -1 : 1;
+    private int addPawnMoves(int[] moves, int count, int sq, PieceColor color,
+                             long allowed, int kingSq, int enPassantSquare) {
+        int row = sq >> 3, col = sq & 7;
+        int direction = (color == PieceColor.WHITE) ? -1 : 1;
         int nextRow = row + direction;
+        if (nextRow < 0 || nextRow > 7) return count;
 
         // Movimiento simple
-        if (inBounds(nextRow, col) && getPieceAt(nextRow, col) == null) {
-            vm.add(new Point(nextRow, col));
-        }
-
-        // Movimiento doble inicial
-        int startRow = (piece.getColor() == PieceColor.WHITE) ? 6 : 1;
-        if (row == startRow) {
-            int twoSteps = row + 2 * direction;
-            if (inBounds(twoSteps, col)
-                && getPieceAt(nextRow, col) == null
-                && getPieceAt(twoSteps, col) == null) {
-                vm.add(new Point(twoSteps, col));
+        int ahead = square(nextRow, col);
+        if (isEmpty(ahead)) {
+            if ((allowed & (1L << ahead)) != 0) {
+                count = addPawnMove(moves, count, sq, ahead, 0);
             }
-        }
 
-        // Captura diagonal
-        for (int d = -1; d <= 1; d += 2) {
-            int nextCol = col + d;
-            if (inBounds(nextRow, nextCol)) {
-                ChessPiece target = getPieceAt(nextRow, nextCol);
-                if (target != null && target.getColor() != piece.getColor()) {
-                    vm.add(new Point(nextRow, nextCol));
+            // Movimiento doble inicial
+            int startRow = (color == PieceColor.WHITE) ? 6 : 1;
+            if (row == startRow) {
+                int twoSteps = square(row + 2 * direction, col);
+                if (isEmpty(twoSteps) && (allowed & (1L << twoSteps)) != 0) {
+                    moves[count++] = Move.encode(sq, twoSteps, Move.FLAG_DOUBLE_PUSH);
                 }
             }
         }
-    }
 
-    // --- Movimientos de torre ---
-    private void addRookMoves(List<Point> vm, int row, int col) {
-        int[][] dirs = {{-1,0},{1,0},{0,-1},{0,1}};
-        for (int[] dir : dirs) {
-            int r = row + dir[0];
-            int c = col + dir[1];
-            while (inBounds(r,c)) {
-                ChessPiece target = getPieceAt(r,c);
-                if (target == null) {
-                    vm.add(new Point(r,c));
-                } else {
-                    if (target.getColor() != getPieceAt(row,col).getColor()) {
-                        vm.add(new Point(r,c));
-                    }
-                    break;
-                }
-                r += dir[0];
-                c += dir[1];
-            }
+        // Captura diagonal
+        long attacks = Attacks.pawnAttacks(color, sq);
+        long captures = attacks & getPieces(opposite(color)) & allowed;
+        for (; captures != 0; captures &= captures - 1) {
+            int target = Long.numberOfTrailingZeros(captures);
+            count = addPawnMove(moves, count, sq, target, Move.FLAG_CAPTURE);
+        }
+
+        // Captura al paso
+        if (enPassantSquare >= 0 && (attacks & (1L << enPassantSquare)) != 0
+                && isLegalEnPassant(sq, enPassantSquare, color, kingSq)) {
+            moves[count++] = Move.encode(sq, enPassantSquare, Move.FLAG_CAPTURE | Move.FLAG_EN_PASSANT);
         }
+        return count;
     }
 
-    // --- Movimientos de caballo ---
-    private void addKnightMoves(List<Point> vm, int row, int col) {
-        int[][] deltas = {
-            {-2,-1}, {-2,1}, {-1,-2}, {-1,2},
-            {1,-2}, {1,2}, {2,-1}, {2,1}
-        };
-        for (int[] d : deltas) {
-            int r = row + d[0];
-            int c = col + d[1];
-            if (inBounds(r,c)) {
-                ChessPiece target = getPieceAt(r, c);
-                if (target == null || target.getColor() != getPieceAt(row, col).getColor()) {
-                    vm.add(new Point(r,c));
-                }
+    // Un peón que llega a la última fila genera las cuatro promociones
+    private int addPawnMove(int[] moves, int count, int from, int to, int flags) {
+        int toRow = to >> 3;
+        if (toRow == 0 || toRow == 7) {
+            for (PieceType type : PROMOTION_TYPES) {
+                moves[count++] = Move.encode(from, to, flags, type);
             }
+        } else {
+            moves[count++] = Move.encode(from, to, flags);
         }
+        return count;
     }
 
-    // --- Movimientos de alfil ---
-    private void addBishopMoves(List<Point> vm, int row, int col) {
-        int[][] dirs = {{-1,-1},{-1,1},{1,-1},{1,1}};
-        for (int[] dir : dirs) {
-            int r = row + dir[0];
-            int c = col + dir[1];
-            while (inBounds(r,c)) {
-                ChessPiece target = getPieceAt(r,c);
-                if (target == null) {
-                    vm.add(new Point(r,c));
-                } else {
-                    if (target.getColor() != getPieceAt(row,col).getColor()) {
-                        vm.add(new Point(r,c));
-                    }
-                    break;
-                }
-                r += dir[0];
-                c += dir[1];
-            }
+    /**
+     * La captura al paso retira dos piezas de la misma fila, así que se
+     * comprueba directamente que el rey no quede atacado tras ella.
+     */
+    private boolean isLegalEnPassant(int from, int to, PieceColor color, int kingSq) {
+        PieceColor enemy = opposite(color);
+        int capturedSq = (from & ~7) | (to & 7);
+        long capturedBit = 1L << capturedSq;
+        if ((getPieces(PieceType.PAWN, enemy) & capturedBit) == 0) return false;
+        if (kingSq < 0) return true;
+
+        long occ = (occupied ^ (1L << from) ^ capturedBit) | (1L << to);
+        long queens = getPieces(PieceType.QUEEN, enemy);
+        return (Attacks.rookAttacks(kingSq, occ) & (getPieces(PieceType.ROOK, enemy) | queens)) == 0
+            && (Attacks.bishopAttacks(kingSq, occ) & (getPieces(PieceType.BISHOP, enemy) | queens)) == 0
+            && (Attacks.knightAttacks(kingSq) & getPieces(PieceType.KNIGHT, enemy)) == 0
+            && (Attacks.pawnAttacks(color, kingSq) & getPieces(PieceType.PAWN, enemy) & ~capturedBit) == 0;
+    }
+
+    // --- Resto de piezas: los destinos salen de las tablas de Attacks ---
+    private int addTargets(int[] moves, int count, int sq, long targets) {
+        for (; targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            int flags = ((occupied & (1L << target)) != 0) ? Move.FLAG_CAPTURE : 0;
+            moves[count++] = Move.encode(sq, target, flags);
         }
+        return count;
     }
 
-    // --- Movimientos de rey + enroques ---
-    private void addKingMoves(List<Point> vm, int row, int col, ChessGame game) {
-        int[][] deltas = {
-            {-1,-1},{-1,0},{-1,1},
-            {0,-1},       {0,1},
-            {1,-1}, {1,0}, {1,1}
-        };
-        for (int[] d : deltas) {
-            int r = row + d[0];
-            int c = col + d[1];
-            if (inBounds(r,c)) {
-                ChessPiece target = getPieceAt(r,c);
-                if (target == null || target.getColor() != getPieceAt(row,col).getColor()) {
-                    vm.add(new Point(r,c));
-                }
+    // --- Rey: sólo a casillas que no estén atacadas ---
+    private int addKingMoves(int[] moves, int count, int kingSq, PieceColor color) {
+        PieceColor enemy = opposite(color);
+        // Se quita el rey de la ocupación para que no "tape" los rayos que lo atacan
+        long occ = occupied & ~(1L << kingSq);
+        long targets = Attacks.kingAttacks(kingSq) & ~getPieces(color);
+        for (; targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            if (attackersTo(target, enemy, occ) == 0) {
+                int flags = ((occupied & (1L << target)) != 0) ? Move.FLAG_CAPTURE : 0;
+                moves[count++] = Move.encode(kingSq, target, flags);
             }
         }
+        return count;
+    }
 
-        // Enroque (corto/largo) si no se movió el rey ni la torre:
-        ChessPiece king = getPieceAt(row, col);
-        if (king == null || king.getType() != PieceType.KING) return;
-        if (game.hasKingMoved(king.getColor())) return;
+    // --- Enroques (corto/largo): rey y torre sin mover, camino libre y no atacado ---
+    private int addCastlingMoves(int[] moves, int count, int kingSq, PieceColor color, ChessGame game) {
+        int row = (color == PieceColor.WHITE) ? 7 : 0;
+        if (kingSq != square(row, 4) || game.hasKingMoved(color)) return count;
+        PieceColor enemy = opposite(color);
+        long rooks = getPieces(PieceType.ROOK, color);
 
         // Enroque corto (col 6)
-        if (!game.hasRookMoved(king.getColor(), true)) {
-            if (getPieceAt(row,5) == null && getPieceAt(row,6) == null) {
-                vm.add(new Point(row, 6));
+        if (!game.hasRookMoved(color, true) && (rooks & (1L << square(row, 7))) != 0) {
+            if (isEmpty(square(row,5)) && isEmpty(square(row,6))
+                    && !isSquareAttacked(square(row,5), enemy)
+                    && !isSquareAttacked(square(row,6), enemy)) {
+                moves[count++] = Move.encode(kingSq, square(row, 6), Move.FLAG_CASTLING);
             }
         }
         // Enroque largo (col 2)
-        if (!game.hasRookMoved(king.getColor(), false)) {
-            if (getPieceAt(row,1) == null && getPieceAt(row,2) == null && getPieceAt(row,3) == null) {
-                vm.add(new Point(row, 2));
+        if (!game.hasRookMoved(color, false) && (rooks & (1L << square(row, 0))) != 0) {
+            if (isEmpty(square(row,1)) && isEmpty(square(row,2)) && isEmpty(square(row,3))
+                    && !isSquareAttacked(square(row,3), enemy)
+                    && !isSquareAttacked(square(row,2), enemy)) {
+                moves[count++] = Move.encode(kingSq, square(row, 2), Move.FLAG_CASTLING);
             }
         }
+        return count;
+    }
+
+    // ============= Detección de ataques =============
+
+    /**
+     * Bitboard con las piezas de 'byColor' que atacan la casilla 'sq'.
+     */
+    public long attackersTo(int sq, PieceColor byColor) {
+        return attackersTo(sq, byColor, occupied);
+    }
+
+    private long attackersTo(int sq, PieceColor byColor, long occ) {
+        long attackers = Attacks.pawnAttacks(opposite(byColor), sq) & getPieces(PieceType.PAWN, byColor);
+        attackers |= Attacks.knightAttacks(sq) & getPieces(PieceType.KNIGHT, byColor);
+        attackers |= Attacks.kingAttacks(sq) & getPieces(PieceType.KING, byColor);
+        long queens = getPieces(PieceType.QUEEN, byColor);
+        attackers |= Attacks.rookAttacks(sq, occ) & (getPieces(PieceType.ROOK, byColor) | queens);
+        attackers |= Attacks.bishopAttacks(sq, occ) & (getPieces(PieceType.BISHOP, byColor) | queens);
+        return attackers;
+    }
+
+    public boolean isSquareAttacked(int sq, PieceColor byColor) {
+        return attackersTo(sq, byColor) != 0;
+    }
+
+    /**
+     * Indica si el rey de 'color' está atacado.
+     */
+    public boolean isInCheck(PieceColor color) {
+        int kingSq = getKingSquare(color);
+        return kingSq >= 0 && isSquareAttacked(kingSq, opposite(color));
+    }
+
+    /**
+     * Piezas de 'color' clavadas contra su rey por una pieza deslizante enemiga.
+     */
+    private long pinnedPieces(int kingSq, PieceColor color) {
+        PieceColor enemy = opposite(color);
+        long enemies = getPieces(enemy);
+        long queens = getPieces(PieceType.QUEEN, enemy);
+        // Atacantes en línea con el rey si sólo contasen las piezas enemigas
+        long snipers = (Attacks.rookAttacks(kingSq, enemies) & (getPieces(PieceType.ROOK, enemy) | queens))
+                     | (Attacks.bishopAttacks(kingSq, enemies) & (getPieces(PieceType.BISHOP, enemy) | queens));
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(kingSq, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & getPieces(color);
+            }
+        }
+        return pinned;
+    }
+
+    private boolean isEmpty(int sq) {
+        return (occupied & (1L << sq)) == 0;
     }
 
-    private boolean inBounds(int r, int c) {
-        return (r >= 0 && r < 8 && c >= 0 && c < 8);
+    private static PieceColor opposite(PieceColor color) {
+        return (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
     }
-}
\ No newline at end of file
+}
@@ -1,101 +1,197 @@
 package chess;
 
-import java.awt.Point;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ChessBot {
 
     // Aumentamos la profundidad
     private static final int DEFAULT_DEPTH = 4;
 
+    // Límite de plies de la búsqueda (tamaño de los buffers por ply)
+    private static final int MAX_PLY = 64;
+
+    /**
+     * Un buffer de movimientos por ply, reutilizado en cada nodo
+     * para no crear listas durante la búsqueda.
+     */
+    private final int[][] moveBuffers = new int[MAX_PLY][Board.MAX_MOVES];
+
+    // Tamaño por defecto de la tabla de transposiciones
+    private static final int DEFAULT_TABLE_MB = 16;
+
+    /**
+     * Tabla de transposiciones: posiciones ya buscadas (por hash Zobrist),
+     * se conserva entre llamadas a findBestMove.
+     */
+    private final TranspositionTable table;
+
     /**
-     * Tabla de valores base por tipo de pieza (material).
-     */
-    private static final int PAWN_VALUE   = 100;
-    private static final int KNIGHT_VALUE = 320;
-    private static final int BISHOP_VALUE = 330;
-    private static final int ROOK_VALUE   = 500;
-    private static final int QUEEN_VALUE  = 900;
-    private static final int KING_VALUE   = 20000; 
-
-    /**
-     * Tablas para dar bonus/penalizaciones a cada pieza según su ubicación.
-     * Estas están "orientadas" para BLANCAS. Para NEGRAS, se invertirá la fila.
-     * Fuentes aproximadas: valores típicos usados en bots de ajedrez simplificados.
-     */
-
-    // Pawn positional table (para BLANCAS)
-    private static final int[][] PAWN_TABLE = {
-        {  0,   0,   0,   0,   0,   0,   0,   0},
-        { 50,  50,  50,  50,  50,  50,  50,  50},
-        { 10,  10,  20,  30,  30,  20,  10,  10},
-        {  5,   5,  10,  25,  25,  10,   5,   5},
-        {  0,   0,   0,  20,  20,   0,   0,   0},
-        {  5,  -5, -10,   0,   0, -10,  -5,   5},
-        {  5,  10,  10, -20, -20,  10,  10,   5},
-        {  0,   0,   0,   0,   0,   0,   0,   0}
-    };
-
-    // Knight positional table
-    private static final int[][] KNIGHT_TABLE = {
-        {-50, -40, -30, -30, -30, -30, -40, -50},
-        {-40, -20,   0,   0,   0,   0, -20, -40},
-        {-30,   0,  10,  15,  15,  10,   0, -30},
-        {-30,   5,  15,  20,  20,  15,   5, -30},
-        {-30,   0,  15,  20,  20,  15,   0, -30},
-        {-30,   5,  10,  15,  15,  10,   5, -30},
-        {-40, -20,   0,   5,   5,   0, -20, -40},
-        {-50, -40, -30, -30, -30, -30, -40, -50}
-    };
-
-    // Bishop positional table
-    private static final int[][] BISHOP_TABLE = {
-        {-20, -10, -10, -10, -10, -10, -10, -20},
-        {-10,   0,   0,   0,   0,   0,   0, -10},
-        {-10,   0,   5,  10,  10,   5,   0, -10},
-        {-10,   5,   5,  10,  10,   5,   5, -10},
-        {-10,   0,  10,  10,  10,  10,   0, -10},
-        {-10,  10,  10,  10,  10,  10,  10, -10},
-        {-10,   5,   0,   0,   0,   0,   5, -10},
-        {-20, -10, -10, -10, -10, -10, -10, -20}
-    };
-
-    // Rook positional table
-    private static final int[][] ROOK_TABLE = {
-        {  0,   0,   0,   0,   0,   0,   0,   0},
-        {  5,  10,  10,  10,  10,  10,  10,   5},
-        { -5,   0,   0,   0,   0,   0,   0,  -5},
-        { -5,   0,   0,   0,   0,   0,   0,  -5},
-        { -5,   0,   0,   0,   0,   0,   0,  -5},
-        { -5,   0,   0,   0,   0,   0,   0,  -5},
-        { -5,   0,   0,   0,   0,   0,   0,  -5},
-        {  0,   0,   0,   5,   5,   0,   0,   0}
-    };
-
-    // Queen positional table
-    private static final int[][] QUEEN_TABLE = {
-        {-20, -10, -10,  -5,  -5, -10, -10, -20},
-        {-10,   0,   0,   0,   0,   0,   0, -10},
-        {-10,   0,   5,   5,   5,   5,   0, -10},
-        { -5,   0,   5,   5,   5,   5,   0,  -5},
-        {  0,   0,   5,   5,   5,   5,   0,  -5},
-        {-10,   5,   5,   5,   5,   5,   0, -10},
-        {-10,   0,   5,   0,   0,   0,   0, -10},
-        {-20, -10, -10,  -5,  -5, -10, -10, -20}
-    };
-
-    // King positional table (midgame)
-    private static final int[][] KING_TABLE = {
-        {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-20, -30, -30, -40, -40, -30, -30, -20},
-        {-10, -20, -20, -20, -20, -20, -20, -10},
-        { 20,  20,   0,   0,   0,   0,  20,  20},
-        { 20,  30,  10,   0,   0,  10,  30,  20}
-    };
+     * Caché de evaluaciones por hash de la posición, compartida por todos
+     * los hilos (null si se creó con tamaño 0).
+     */
+    private static final int DEFAULT_EVAL_CACHE_MB = 4;
+    private final EvalCache evalCache;
+
+    // Caché de la estructura de peones (una por hilo, no se comparte)
+    private static final int PAWN_TABLE_MB = 1;
+    private final PawnTable pawnTable = new PawnTable(PAWN_TABLE_MB);
+
+    // Control de tiempo de la búsqueda (System.nanoTime())
+    private static final int TIME_CHECK_INTERVAL = 255; // máscara: cada 256 nodos
+    private long deadline;
+    private volatile boolean stopped; // lo activa también el hilo principal en los ayudantes
+    private long nodes;
+    private int rootScore;
+    // Resultado de la última iteración completa
+    private int completedDepth;
+    private int completedMove;
+
+    /*
+     * Lazy SMP: varios hilos buscan la misma raíz sobre copias de la partida,
+     * compartiendo sólo la tabla de transposiciones. Cada ayudante es otro
+     * ChessBot, con sus propios buffers, killers e historia.
+     */
+    private final int threads;
+    private ChessBot[] helpers = new ChessBot[0];
+
+    /*
+     * Modo alternativo: reparto de los movimientos de la raíz entre los hilos
+     * de un ForkJoinPool, cada tarea sobre su copia de la partida, con un alpha
+     * compartido. Los buscadores libres esperan en idleWorkers.
+     */
+    private boolean rootSplitting = false;
+    private ForkJoinPool pool;
+    private final ConcurrentLinkedQueue<ChessBot> idleWorkers = new ConcurrentLinkedQueue<>();
+
+    /*
+     * Ordenación de movimientos por etapas: primero el movimiento de la tabla,
+     * luego capturas (MVV-LVA) y promociones, luego los killers del ply y por
+     * último los movimientos tranquilos según la tabla de historia.
+     */
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE   = 1 << 29;
+    private static final int KILLER_SCORE    = 1 << 28;
+    private static final int HISTORY_MAX     = 1 << 27;
+
+    // Rango de cada tipo para MVV-LVA (orden de PieceType: PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING)
+    private static final int[] ORDER_RANK = {1, 4, 2, 3, 5, 6};
+
+    private final int[][] moveScores = new int[MAX_PLY][Board.MAX_MOVES];
+    // Dos movimientos tranquilos por ply que provocaron un corte
+    private final int[][] killers = new int[MAX_PLY][2];
+    // Historia por color, indexada por origen * 64 + destino
+    private final int[][] history = new int[2][64 * 64];
+
+    // Poda selectiva: movimiento nulo y reducción de movimientos tardíos (LMR)
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVE = 4; // los primeros movimientos nunca se reducen
+    private boolean nullMovePruning = true;
+    private boolean lateMoveReductions = true;
+
+
+    /**
+     * Puntuación de un jaque mate (mayor que cualquier evaluación material).
+     * Se le resta el ply para preferir los mates más cortos.
+     */
+    private static final int MATE_SCORE = 1000000;
+    // Cota de las ventanas de búsqueda (ninguna puntuación la alcanza)
+    private static final int INFINITY = MATE_SCORE + 1;
+
+    // Ventanas de aspiración en la raíz: semiancho inicial y profundidad a partir de la que se usan
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+
+    // Margen de la poda delta en la quiescencia (compensa el bonus posicional)
+    private static final int DELTA_MARGIN = 200;
+
+    // La movilidad suma 1 punto por cada MOBILITY_DIVISOR casillas de diferencia
+    private static final int MOBILITY_DIVISOR = 10;
+
+    /*
+     * Estructura de peones (puntuaciones empaquetadas medio juego / final):
+     * penalización por peón doblado (cada peón de más en una columna) y por
+     * peón aislado, y bonus por peón pasado según lo avanzado que esté.
+     */
+    private static final int DOUBLED_PAWN  = PieceSquare.pack(-10, -20);
+    private static final int ISOLATED_PAWN = PieceSquare.pack(-10, -15);
+    private static final int[] PASSED_PAWN = new int[8]; // por fila relativa (1 = inicial, 6 = a punto de coronar)
+
+    // Máscaras de columna, columnas vecinas y zona por delante de un peón pasado
+    private static final long[] FILE_MASK = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[][] PASSED_MASK = new long[2][64];
+
+    static {
+        int[] passedMiddlegame = {0, 5, 10, 20, 35, 60, 100, 0};
+        int[] passedEndgame    = {0, 10, 20, 40, 70, 120, 200, 0};
+        for (int rank = 0; rank < 8; rank++) {
+            PASSED_PAWN[rank] = PieceSquare.pack(passedMiddlegame[rank], passedEndgame[rank]);
+        }
+        for (int col = 0; col < 8; col++) {
+            FILE_MASK[col] = 0x0101010101010101L << col;
+        }
+        for (int col = 0; col < 8; col++) {
+            ADJACENT_FILES[col] = (col > 0 ? FILE_MASK[col - 1] : 0) | (col < 7 ? FILE_MASK[col + 1] : 0);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq >> 3, col = sq & 7;
+            long files = FILE_MASK[col] | ADJACENT_FILES[col];
+            // Filas por delante: las de menor índice para BLANCAS (avanzan hacia la fila 0)
+            long whiteFront = (row == 0) ? 0 : (-1L >>> (64 - row * 8));
+            long blackFront = (row == 7) ? 0 : (-1L << ((row + 1) * 8));
+            PASSED_MASK[PieceColor.WHITE.ordinal()][sq] = files & whiteFront;
+            PASSED_MASK[PieceColor.BLACK.ordinal()][sq] = files & blackFront;
+        }
+    }
+
+    // ============= Constructores =============
+
+    public ChessBot() {
+        this(DEFAULT_TABLE_MB);
+    }
+
+    /**
+     * @param tableSizeMb tamaño de la tabla de transposiciones en MB
+     */
+    public ChessBot(int tableSizeMb) {
+        this(tableSizeMb, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param tableSizeMb tamaño de la tabla de transposiciones en MB
+     * @param threads     hilos de búsqueda (1 = sin búsqueda en paralelo)
+     */
+    public ChessBot(int tableSizeMb, int threads) {
+        this(tableSizeMb, threads, DEFAULT_EVAL_CACHE_MB);
+    }
+
+    /**
+     * @param tableSizeMb     tamaño de la tabla de transposiciones en MB
+     * @param threads         hilos de búsqueda (1 = sin búsqueda en paralelo)
+     * @param evalCacheSizeMb tamaño de la caché de evaluaciones en MB (0 = sin caché)
+     */
+    public ChessBot(int tableSizeMb, int threads, int evalCacheSizeMb) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Número de hilos no válido: " + threads);
+        }
+        this.table = new TranspositionTable(tableSizeMb);
+        this.evalCache = (evalCacheSizeMb > 0) ? new EvalCache(evalCacheSizeMb) : null;
+        this.threads = threads;
+    }
+
+    // Ayudante de la búsqueda en paralelo: comparte las tablas del bot principal
+    private ChessBot(ChessBot parent) {
+        this.table = parent.table;
+        this.evalCache = parent.evalCache;
+        this.threads = 1;
+    }
 
     // ============= Métodos principales =============
 
@@ -111,216 +207,752 @@ public class ChessBot {
      * Encuentra el mejor movimiento con la profundidad indicada.
      */
     public Move findBestMove(ChessGame game, PieceColor botColor, int depth) {
-        List<Move> moves = getAllMoves(game, botColor);
-        if (moves.isEmpty()) {
-            return null;
+        int bestMove = search(game, botColor, depth, Long.MAX_VALUE);
+        // Sólo aquí, en la frontera con la GUI, se crea un objeto Move
+        return (bestMove == 0) ? null : new Move(bestMove);
+    }
+
+    /**
+     * Profundización iterativa con límite de tiempo: busca a profundidad 1, 2, 3...
+     * hasta agotar 'budget' y devuelve el mejor movimiento de la última
+     * iteración completa (la iteración interrumpida se descarta).
+     */
+    public Move findBestMove(ChessGame game, PieceColor botColor, Duration budget) {
+        int bestMove = search(game, botColor, MAX_PLY - 1, System.nanoTime() + budget.toNanos());
+
+        // Si ni siquiera la profundidad 1 terminó, cualquier movimiento legal sirve
+        if (bestMove == 0) {
+            int count = getAllMoves(game, botColor, moveBuffers[0]);
+            if (count == 0) return null;
+            bestMove = moveBuffers[0][0];
         }
+        return new Move(bestMove);
+    }
 
-        boolean isMaximizing = (botColor == PieceColor.WHITE);
-        int bestScore = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
-        Move bestMove = null;
+    /**
+     * Lanza la búsqueda en este hilo y en los ayudantes, y devuelve el movimiento
+     * del que haya completado la iteración más profunda (0 si no hay ninguno).
+     * Los ayudantes se detienen en cuanto termina el hilo principal.
+     */
+    private int search(ChessGame game, PieceColor botColor, int maxDepth, long deadline) {
+        startSearch(deadline);
+        if (isRootSplitting()) {
+            prepareRootWorkers(deadline);
+            iterate(game, botColor, 1, maxDepth);
+            return completedMove;
+        }
+        Thread[] workers = startHelpers(game, botColor, maxDepth, deadline);
 
-        for (Move move : moves) {
-            ChessPiece captured = game.getBoard().getPieceAt(move.toRow, move.toCol);
+        iterate(game, botColor, 1, maxDepth);
+
+        ChessBot best = this;
+        for (int i = 0; i < workers.length; i++) {
+            helpers[i].stopped = true;
+            try {
+                workers[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (helpers[i].completedDepth > best.completedDepth) {
+                best = helpers[i];
+            }
+        }
+        return best.completedMove;
+    }
 
+    /**
+     * Arranca threads - 1 ayudantes, cada uno sobre su propia copia de la partida.
+     * La mitad empieza en profundidad 2 para que no recorran todos el mismo árbol.
+     */
+    private Thread[] startHelpers(ChessGame game, PieceColor botColor, int maxDepth, long deadline) {
+        if (helpers.length != threads - 1) {
+            helpers = new ChessBot[threads - 1];
+            for (int i = 0; i < helpers.length; i++) {
+                helpers[i] = new ChessBot(this);
+            }
+        }
+        Thread[] workers = new Thread[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            ChessBot helper = helpers[i];
+            ChessGame copy = new ChessGame(game);
+            int firstDepth = 1 + (i + 1) % 2;
+            helper.nullMovePruning = nullMovePruning;
+            helper.lateMoveReductions = lateMoveReductions;
+            // Se prepara antes de arrancar el hilo para que la parada no se pierda
+            helper.startSearch(deadline);
+            workers[i] = new Thread(() -> helper.iterate(copy, botColor, firstDepth, maxDepth),
+                                    "ChessBot-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        return workers;
+    }
+
+    /**
+     * Profundización iterativa hasta 'maxDepth' o hasta que se agote el tiempo.
+     * Desde ASPIRATION_MIN_DEPTH cada iteración empieza con una ventana estrecha
+     * alrededor de la puntuación anterior y la ensancha si la puntuación cae fuera.
+     */
+    private void iterate(ChessGame game, PieceColor botColor, int firstDepth, int maxDepth) {
+        int bestMove = 0;
+        for (int depth = firstDepth; depth <= maxDepth; depth++) {
+            int delta = ASPIRATION_WINDOW;
+            boolean aspire = depth >= ASPIRATION_MIN_DEPTH && Math.abs(rootScore) < MATE_SCORE - MAX_PLY;
+            int alpha = aspire ? rootScore - delta : -INFINITY;
+            int beta = aspire ? rootScore + delta : INFINITY;
+
+            int move;
+            while (true) {
+                move = isRootSplitting() ? searchRootParallel(game, botColor, depth, bestMove, alpha, beta)
+                                         : searchRoot(game, botColor, depth, bestMove, alpha, beta);
+                if (stopped || move == 0) break;
+                if (rootScore <= alpha) {
+                    alpha = Math.max(rootScore - delta, -INFINITY);
+                } else if (rootScore >= beta) {
+                    beta = Math.min(rootScore + delta, INFINITY);
+                } else {
+                    break;
+                }
+                delta *= 2;
+            }
+            if (stopped) break;
+            bestMove = move;
+            completedDepth = depth;
+            completedMove = move;
+            // Sin movimientos, o ya se encontró un mate: más profundidad no cambia nada
+            if (move == 0 || Math.abs(rootScore) >= MATE_SCORE - MAX_PLY) break;
+        }
+    }
+
+    /**
+     * Busca todos los movimientos de la raíz a 'depth' plies dentro de (alpha, beta),
+     * empezando por 'firstMove' (el mejor de la iteración anterior, 0 si no hay).
+     * Devuelve el mejor movimiento (0 si no hay ninguno) y deja su puntuación,
+     * desde el punto de vista del bot, en rootScore.
+     */
+    private int searchRoot(ChessGame game, PieceColor botColor, int depth, int firstMove, int alpha, int beta) {
+        int[] moves = moveBuffers[0];
+        int count = getAllMoves(game, botColor, moves);
+        if (count == 0) {
+            return 0;
+        }
+        int[] scores = moveScores[0];
+        scoreMoves(game, moves, scores, count, firstMove, 0);
+
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(moves, scores, count, i);
+            if (bestMove == 0) bestMove = move;
             // Realizar
-            game.getBoard().movePiece(move.fromRow, move.fromCol, move.toRow, move.toCol);
-            game.forceTurnChange();
+            game.makeMove(move);
 
-            // alphaBeta
-            int score = alphaBeta(game, depth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE, !isMaximizing);
+            // negamax (PVS)
+            int score = searchChild(game, depth - 1, 0, alpha, beta, 1, i == 0);
 
             // Deshacer
-            game.getBoard().movePiece(move.toRow, move.toCol, move.fromRow, move.fromCol);
-            game.getBoard().setPieceAt(move.toRow, move.toCol, captured);
-            game.forceTurnChange();
+            game.unmakeMove();
+
+            if (stopped) break;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) break;
+        }
+
+        rootScore = bestScore;
+        return bestMove;
+    }
+
+    private boolean isRootSplitting() {
+        return rootSplitting && threads > 1;
+    }
+
+    /**
+     * Crea (la primera vez) el pool y un buscador por hilo, y los prepara para una búsqueda nueva.
+     */
+    private void prepareRootWorkers(long deadline) {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+            for (int i = 0; i < threads; i++) {
+                idleWorkers.add(new ChessBot(this));
+            }
+        }
+        for (ChessBot worker : idleWorkers) {
+            worker.nullMovePruning = nullMovePruning;
+            worker.lateMoveReductions = lateMoveReductions;
+            worker.startSearch(deadline);
+        }
+    }
 
-            if (isMaximizing) {
+    /**
+     * Como searchRoot, pero repartiendo los movimientos en el pool. El primero
+     * (el mejor de la iteración anterior) se busca antes, solo, para fijar alpha;
+     * el resto se busca en paralelo y cada mejora sube el alpha compartido.
+     */
+    private int searchRootParallel(ChessGame game, PieceColor botColor, int depth, int firstMove, int alpha, int beta) {
+        int[] moves = moveBuffers[0];
+        int count = getAllMoves(game, botColor, moves);
+        if (count == 0) {
+            return 0;
+        }
+        int[] scores = moveScores[0];
+        scoreMoves(game, moves, scores, count, firstMove, 0);
+        for (int i = 0; i < count; i++) {
+            pickMove(moves, scores, count, i);
+        }
+
+        ChessBot first = idleWorkers.peek();
+        game.makeMove(moves[0]);
+        int bestScore = first.searchChild(game, depth - 1, 0, alpha, beta, 1, true);
+        game.unmakeMove();
+        int bestMove = moves[0];
+
+        if (!first.stopped && bestScore < beta && count > 1) {
+            AtomicInteger sharedAlpha = new AtomicInteger(Math.max(alpha, bestScore));
+            List<ForkJoinTask<Integer>> tasks = new ArrayList<>(count - 1);
+            for (int i = 1; i < count; i++) {
+                int move = moves[i];
+                ChessGame copy = new ChessGame(game);
+                tasks.add(pool.submit(() -> searchRootMove(copy, move, depth, sharedAlpha, beta)));
+            }
+            for (int i = 1; i < count; i++) {
+                int score = tasks.get(i - 1).join();
                 if (score > bestScore) {
                     bestScore = score;
-                    bestMove = move;
-                }
-            } else {
-                if (score < bestScore) {
-                    bestScore = score;
-                    bestMove = move;
+                    bestMove = moves[i];
                 }
             }
         }
 
+        for (ChessBot worker : idleWorkers) {
+            if (worker.stopped) stopped = true;
+        }
+        rootScore = bestScore;
         return bestMove;
     }
 
     /**
-     * alpha-beta pruning
+     * Tarea del pool: busca un movimiento de la raíz con el alpha compartido actual.
+     * Devuelve su puntuación si mejora ese alpha, o Integer.MIN_VALUE si no.
      */
-    private int alphaBeta(ChessGame game, int depth, int alpha, int beta, boolean isMaximizing) {
-        if (depth == 0 || game.isGameOver()) {
-            return evaluateBoard(game);
+    private int searchRootMove(ChessGame game, int move, int depth, AtomicInteger sharedAlpha, int beta) {
+        ChessBot worker = idleWorkers.poll();
+        if (worker == null) {
+            // No debería pasar: hay tantos buscadores como hilos en el pool
+            worker = new ChessBot(this);
+            worker.startSearch(deadline);
+        }
+        try {
+            int alpha = sharedAlpha.get();
+            if (alpha >= beta) {
+                return Integer.MIN_VALUE;
+            }
+            game.makeMove(move);
+            int score = worker.searchChild(game, depth - 1, 0, alpha, beta, 1, false);
+            game.unmakeMove();
+            if (worker.stopped || score <= alpha) {
+                return Integer.MIN_VALUE;
+            }
+            sharedAlpha.accumulateAndGet(score, Math::max);
+            return score;
+        } finally {
+            idleWorkers.add(worker);
+        }
+    }
+
+    /**
+     * Principal variation search: el primer hijo se busca con la ventana completa;
+     * el resto con una ventana nula que sólo comprueba que no mejora al primero,
+     * y se repite con la ventana completa si resulta que sí mejora.
+     * Con 'reduction' > 0 la ventana nula se prueba antes a menor profundidad
+     * y, si el movimiento parece mejorar, se repite a profundidad completa.
+     * Devuelve la puntuación desde el punto de vista del padre.
+     */
+    private int searchChild(ChessGame game, int depth, int reduction, int alpha, int beta,
+                            int ply, boolean firstChild) {
+        if (firstChild) {
+            return -negamax(game, depth, -beta, -alpha, ply, true);
+        }
+        int score = -negamax(game, depth - reduction, -alpha - 1, -alpha, ply, true);
+        if (score > alpha && reduction > 0) {
+            score = -negamax(game, depth, -alpha - 1, -alpha, ply, true);
+        }
+        if (score > alpha && score < beta) {
+            score = -negamax(game, depth, -beta, -alpha, ply, true);
+        }
+        return score;
+    }
+    /**
+     * Reducción de movimientos tardíos: los movimientos tranquilos que la
+     * ordenación deja al final (sin jaque, no killers) se buscan con menos
+     * profundidad. Se llama con el movimiento ya hecho.
+     */
+    private int lateMoveReduction(ChessGame game, int move, int orderScore, int index, int depth, boolean inCheck) {
+        if (!lateMoveReductions || index < LMR_MIN_MOVE || depth < LMR_MIN_DEPTH || inCheck
+            || orderScore >= KILLER_SCORE
+            || (Move.flags(move) & (Move.FLAG_CAPTURE | Move.FLAG_PROMOTION)) != 0
+            || game.isInCheck()) {
+            return 0;
+        }
+        return (index >= 2 * LMR_MIN_MOVE && depth >= 6) ? 2 : 1;
+    }
+
+    /**
+     * El bando tiene alguna pieza que no sea rey ni peón.
+     */
+    private static boolean hasPieces(Board board, PieceColor color) {
+        long kingAndPawns = board.getPieces(PieceType.KING, color) | board.getPieces(PieceType.PAWN, color);
+        return (board.getPieces(color) & ~kingAndPawns) != 0;
+    }
+
+    // ============= Opciones de la búsqueda =============
+
+    /**
+     * Activa o desactiva la poda de movimiento nulo (para comparar fuerza y velocidad).
+     */
+    public void setNullMovePruning(boolean enabled) {
+        nullMovePruning = enabled;
+    }
+
+    /**
+     * Activa o desactiva la reducción de movimientos tardíos.
+     */
+    public void setLateMoveReductions(boolean enabled) {
+        lateMoveReductions = enabled;
+    }
+
+    /**
+     * Con varios hilos, reparte los movimientos de la raíz en un ForkJoinPool
+     * en lugar de usar Lazy SMP.
+     */
+    public void setRootSplitting(boolean enabled) {
+        rootSplitting = enabled;
+    }
+
+    /**
+     * Caché de evaluaciones, para consultar sus aciertos y fallos (null si no hay).
+     */
+    public EvalCache getEvalCache() {
+        return evalCache;
+    }
+
+    /**
+     * Prepara una búsqueda nueva: reinicia el reloj y los killers,
+     * y reduce la historia para que pesen más los cortes recientes.
+     */
+    private void startSearch(long deadline) {
+        this.deadline = deadline;
+        stopped = false;
+        nodes = 0;
+        completedDepth = 0;
+        completedMove = 0;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = plyKillers[1] = 0;
         }
+        ageHistory();
+    }
+
+    /**
+     * Cada cierto número de nodos comprueba si se agotó el tiempo.
+     */
+    private boolean checkTime() {
+        if ((++nodes & TIME_CHECK_INTERVAL) == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+        return stopped;
+    }
 
-        PieceColor color = isMaximizing ? PieceColor.WHITE : PieceColor.BLACK;
-        List<Move> moves = getAllMoves(game, color);
-        if (moves.isEmpty()) {
+    /**
+     * Alpha-beta en forma negamax: la puntuación es siempre desde el punto
+     * de vista del bando que mueve, y la del hijo es la del padre cambiada de signo.
+     */
+    private int negamax(ChessGame game, int depth, int alpha, int beta, int ply, boolean allowNull) {
+        if (checkTime()) {
+            return 0;
+        }
+        // Una posición repetida vale tablas (los 50 movimientos, tras ver si hay mate)
+        if (game.isRepetition()) {
+            return 0;
+        }
+
+        // Transposición: si ya se buscó con profundidad suficiente, su cota puede bastar
+        long hash = game.getPositionHash();
+        long entry = table.probe(hash);
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = scoreFromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.BOUND_EXACT
+                || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        // En la frontera se siguen las capturas hasta una posición tranquila
+        if (depth <= 0) {
+            return quiesce(game, alpha, beta, ply);
+        }
+
+        PieceColor color = game.getCurrentTurn();
+        Board board = game.getBoard();
+        boolean inCheck = board.isInCheck(color);
+
+        // Movimiento nulo: si pasando el turno el rival sigue sin alcanzar la ventana,
+        // esta posición se poda. No se usa en jaque, dos veces seguidas, ni con
+        // sólo rey y peones (zugzwang, donde pasar sería lo mejor)
+        if (nullMovePruning && allowNull && !inCheck && depth >= NULL_MOVE_MIN_DEPTH
+            && game.getHalfmoveClock() < 100
+            && ply < MAX_PLY - 2 && hasPieces(board, color)) {
+            int reduction = (depth >= 6) ? 3 : 2;
+            game.makeNullMove();
+            int score = -negamax(game, depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+            game.unmakeNullMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return beta;
+            }
+        }
+
+        int[] moves = moveBuffers[ply];
+        int count = getAllMoves(game, color, moves);
+        if (count == 0) {
+            // Sin movimientos legales: mate si está en jaque, si no ahogado (tablas)
+            return inCheck ? -MATE_SCORE + ply : 0;
+        }
+        // 50 movimientos sin progreso: tablas (el mate, ya visto arriba, tiene prioridad)
+        if (game.getHalfmoveClock() >= 100) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
             return evaluateBoard(game);
         }
+        int[] scores = moveScores[ply];
+        scoreMoves(game, moves, scores, count, (entry != 0) ? TranspositionTable.move(entry) : 0, ply);
 
-        if (isMaximizing) {
-            int value = Integer.MIN_VALUE;
-            for (Move move : moves) {
-                ChessPiece captured = game.getBoard().getPieceAt(move.toRow, move.toCol);
-                // Hacer
-                game.getBoard().movePiece(move.fromRow, move.fromCol, move.toRow, move.toCol);
-                game.forceTurnChange();
+        int alphaOrig = alpha;
+        int value = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(moves, scores, count, i);
+            // Hacer
+            game.makeMove(move);
 
-                int score = alphaBeta(game, depth - 1, alpha, beta, false);
+            int reduction = lateMoveReduction(game, move, scores[i], i, depth, inCheck);
+            int score = searchChild(game, depth - 1, reduction, alpha, beta, ply + 1, i == 0);
 
-                // Deshacer
-                game.getBoard().movePiece(move.toRow, move.toCol, move.fromRow, move.fromCol);
-                game.getBoard().setPieceAt(move.toRow, move.toCol, captured);
-                game.forceTurnChange();
+            // Deshacer
+            game.unmakeMove();
 
-                value = Math.max(value, score);
-                alpha = Math.max(alpha, value);
-                if (alpha >= beta) break; // poda
+            if (score > value) {
+                value = score;
+                bestMove = move;
             }
-            return value;
-        } else {
-            int value = Integer.MAX_VALUE;
-            for (Move move : moves) {
-                ChessPiece captured = game.getBoard().getPieceAt(move.toRow, move.toCol);
-                // Hacer
-                game.getBoard().movePiece(move.fromRow, move.fromCol, move.toRow, move.toCol);
-                game.forceTurnChange();
-
-                int score = alphaBeta(game, depth - 1, alpha, beta, true);
-
-                // Deshacer
-                game.getBoard().movePiece(move.toRow, move.toCol, move.fromRow, move.fromCol);
-                game.getBoard().setPieceAt(move.toRow, move.toCol, captured);
-                game.forceTurnChange();
-
-                value = Math.min(value, score);
-                beta = Math.min(beta, value);
-                if (beta <= alpha) break; // poda
+            alpha = Math.max(alpha, value);
+            if (alpha >= beta) { // poda
+                recordCutoff(move, color, depth, ply);
+                break;
             }
-            return value;
         }
+
+        // Una búsqueda interrumpida no da un resultado fiable
+        if (stopped) {
+            return 0;
+        }
+
+        // Guardar el resultado con el tipo de cota según la ventana original
+        int bound = (value <= alphaOrig) ? TranspositionTable.BOUND_UPPER
+                  : (value >= beta) ? TranspositionTable.BOUND_LOWER
+                  : TranspositionTable.BOUND_EXACT;
+        table.store(hash, bestMove, scoreToTable(value, ply), depth, bound);
+        return value;
     }
 
     /**
-     * Genera todos los movimientos posibles para 'color'.
+     * Búsqueda de quiescencia: sólo capturas y promociones (todas las
+     * respuestas si se está en jaque), para no evaluar a mitad de un intercambio.
      */
-    private List<Move> getAllMoves(ChessGame game, PieceColor color) {
-        List<Move> all = new ArrayList<>();
+    private int quiesce(ChessGame game, int alpha, int beta, int ply) {
+        if (checkTime()) {
+            return 0;
+        }
+        PieceColor color = game.getCurrentTurn();
         Board board = game.getBoard();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece piece = board.getPieceAt(row, col);
-                if (piece != null && piece.getColor() == color) {
-                    List<Point> validPoints = game.getValidMoves(row, col);
-                    for (Point p : validPoints) {
-                        all.add(new Move(row, col, p.x, p.y));
-                    }
+
+        int[] moves = moveBuffers[ply];
+        int count = getAllMoves(game, color, moves);
+        boolean inCheck = board.isInCheck(color);
+        if (count == 0) {
+            return inCheck ? -MATE_SCORE + ply : 0;
+        }
+        if (game.getHalfmoveClock() >= 100) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluateBoard(game);
+        }
+
+        // Stand pat: el bando que mueve puede quedarse con la evaluación estática
+        int standPat = 0;
+        if (!inCheck) {
+            standPat = evaluateBoard(game);
+            if (standPat >= beta) return standPat;
+            alpha = Math.max(alpha, standPat);
+
+            // Quedarse sólo con capturas y promociones
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if ((Move.flags(moves[i]) & (Move.FLAG_CAPTURE | Move.FLAG_PROMOTION)) != 0) {
+                    moves[kept++] = moves[i];
                 }
             }
+            count = kept;
         }
-        return all;
+
+        int[] scores = moveScores[ply];
+        scoreMoves(game, moves, scores, count, 0, ply);
+
+        int value = inCheck ? -INFINITY : standPat;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(moves, scores, count, i);
+
+            // Poda delta: ni ganando la pieza capturada (y un margen) se alcanza alpha
+            if (!inCheck && Move.promotion(move) == null
+                && standPat + capturedValue(board, move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+
+            game.makeMove(move);
+            int score = -quiesce(game, -beta, -alpha, ply + 1);
+            game.unmakeMove();
+
+            value = Math.max(value, score);
+            alpha = Math.max(alpha, value);
+            if (alpha >= beta) break; // poda
+        }
+        return value;
     }
 
-    // ========== EVALUACIÓN (material + piece-square tables + movilidad) ==========
+    private static int capturedValue(Board board, int move) {
+        ChessPiece victim = board.getPieceAt(Move.to(move));
+        return (victim == null) ? PieceSquare.PAWN_VALUE : PieceSquare.material(victim.getCode()); // null: al paso
+    }
 
-    private int evaluateBoard(ChessGame game) {
-        int whiteScore = 0;
-        int blackScore = 0;
+    // ============= Ordenación de movimientos =============
 
+    /**
+     * Asigna a cada movimiento su prioridad de ordenación.
+     */
+    private void scoreMoves(ChessGame game, int[] moves, int[] scores, int count, int hashMove, int ply) {
         Board board = game.getBoard();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece piece = board.getPieceAt(row, col);
-                if (piece != null) {
-                    // Material base
-                    int baseVal = getBaseValue(piece.getType());
-                    // Bonus por posición
-                    int positionalVal = getPositionalValue(piece.getType(), piece.getColor(), row, col);
-                    // Suma total
-                    int pieceVal = baseVal + positionalVal;
-
-                    // Acumular para color
-                    if (piece.getColor() == PieceColor.WHITE) {
-                        whiteScore += pieceVal;
-                    } else {
-                        blackScore += pieceVal;
-                    }
+        int[] plyHistory = history[game.getCurrentTurn().ordinal()];
+        int killer1 = killers[ply][0], killer2 = killers[ply][1];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if ((Move.flags(move) & (Move.FLAG_CAPTURE | Move.FLAG_PROMOTION)) != 0) {
+                // MVV-LVA: la víctima más valiosa primero y, a igualdad, el atacante más barato
+                score = CAPTURE_SCORE;
+                if (Move.isCapture(move)) {
+                    ChessPiece victim = board.getPieceAt(Move.to(move));
+                    int victimRank = (victim == null) ? ORDER_RANK[PieceType.PAWN.ordinal()] // al paso
+                                                      : ORDER_RANK[victim.getType().ordinal()];
+                    score += victimRank * 8 - ORDER_RANK[board.getPieceAt(Move.from(move)).getType().ordinal()];
+                }
+                PieceType promotion = Move.promotion(move);
+                if (promotion != null) {
+                    score += ORDER_RANK[promotion.ordinal()] * 8;
                 }
+            } else if (move == killer1) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killer2) {
+                score = KILLER_SCORE;
+            } else {
+                score = plyHistory[move & 0xFFF];
             }
+            scores[i] = score;
         }
+    }
 
-        // Movilidad: cuántos moves tiene cada color
-        int whiteMob = 0, blackMob = 0;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece piece = board.getPieceAt(row, col);
-                if (piece != null) {
-                    int moves = game.getValidMoves(row, col).size();
-                    if (piece.getColor() == PieceColor.WHITE) {
-                        whiteMob += moves;
-                    } else {
-                        blackMob += moves;
-                    }
-                }
+    /**
+     * Selección parcial: lleva a la posición i el mejor movimiento restante.
+     * Sólo se ordena lo que se llega a probar antes de un corte.
+     */
+    private static int pickMove(int[] moves, int[] scores, int count, int i) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) best = j;
+        }
+        int move = moves[best];
+        moves[best] = moves[i];
+        moves[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    /**
+     * Un movimiento tranquilo que provoca un corte pasa a killer del ply
+     * y suma a la historia (más cuanto más profunda la búsqueda).
+     */
+    private void recordCutoff(int move, PieceColor color, int depth, int ply) {
+        if ((Move.flags(move) & (Move.FLAG_CAPTURE | Move.FLAG_PROMOTION)) != 0) {
+            return;
+        }
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] colorHistory = history[color.ordinal()];
+        int index = move & 0xFFF; // origen y destino
+        colorHistory[index] += depth * depth;
+        if (colorHistory[index] >= HISTORY_MAX) {
+            ageHistory();
+        }
+    }
+
+    private void ageHistory() {
+        for (int[] colorHistory : history) {
+            for (int i = 0; i < colorHistory.length; i++) {
+                colorHistory[i] >>= 1;
             }
         }
+    }
+
+    /*
+     * Las puntuaciones de mate dependen del ply: en la tabla se guardan
+     * relativas al nodo y se vuelven a hacer relativas a la raíz al leerlas.
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) return score + ply;
+        if (score <= -MATE_SCORE + MAX_PLY) return score - ply;
+        return score;
+    }
 
-        // Pequeño factor para movilidad
-        double mobilityEval = 0.1 * (whiteMob - blackMob);
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) return score - ply;
+        if (score <= -MATE_SCORE + MAX_PLY) return score + ply;
+        return score;
+    }
 
-        int totalEval = (int)((whiteScore - blackScore) + mobilityEval);
-        return totalEval;
+    /**
+     * Genera todos los movimientos posibles para 'color' en el buffer dado.
+     * Devuelve cuántos movimientos se escribieron.
+     */
+    private int getAllMoves(ChessGame game, PieceColor color, int[] moves) {
+        if (color != game.getCurrentTurn()) {
+            return 0;
+        }
+        return game.getBoard().generateMoves(color, game, moves);
     }
 
+    // ========== EVALUACIÓN (material + piece-square tables + movilidad) ==========
+
     /**
-     * Retorna el valor "material base" de cada pieza.
+     * Estructura de peones, BLANCAS menos NEGRAS y empaquetada. Sólo depende
+     * de los peones, así que se guarda en la caché por su hash.
      */
-    private int getBaseValue(PieceType type) {
-        switch (type) {
-            case PAWN:   return PAWN_VALUE;
-            case KNIGHT: return KNIGHT_VALUE;
-            case BISHOP: return BISHOP_VALUE;
-            case ROOK:   return ROOK_VALUE;
-            case QUEEN:  return QUEEN_VALUE;
-            case KING:   return KING_VALUE;
-            default:     return 0;
+    private int pawnStructure(Board board) {
+        long key = board.getPawnKey();
+        int score = pawnTable.probe(key);
+        if (score == PawnTable.NOT_FOUND) {
+            score = pawnStructure(board, PieceColor.WHITE) - pawnStructure(board, PieceColor.BLACK);
+            pawnTable.store(key, score);
         }
+        return score;
+    }
+
+    private static int pawnStructure(Board board, PieceColor color) {
+        long pawns = board.getPieces(PieceType.PAWN, color);
+        PieceColor enemy = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        long enemyPawns = board.getPieces(PieceType.PAWN, enemy);
+        int score = 0;
+        for (int col = 0; col < 8; col++) {
+            int onFile = Long.bitCount(pawns & FILE_MASK[col]);
+            if (onFile == 0) continue;
+            if (onFile > 1) {
+                score += (onFile - 1) * DOUBLED_PAWN;
+            }
+            if ((pawns & ADJACENT_FILES[col]) == 0) {
+                score += onFile * ISOLATED_PAWN;
+            }
+        }
+        for (long bb = pawns; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            long front = PASSED_MASK[color.ordinal()][sq];
+            // Pasado: sin peones rivales delante (ni en las columnas vecinas) ni uno propio tapándolo
+            if ((enemyPawns & front) == 0 && (pawns & front & FILE_MASK[sq & 7]) == 0) {
+                int row = sq >> 3;
+                int rank = (color == PieceColor.WHITE) ? 7 - row : row; // 1 = casilla inicial
+                score += PASSED_PAWN[rank];
+            }
+        }
+        return score;
     }
 
     /**
-     * Retorna un bonus/penalización según la casilla, basándose en
-     * piece-square table. Para Negras, se invierte la fila.
+     * Movilidad de 'color': casillas atacadas por sus piezas (salvo peones)
+     * que no ocupa una pieza propia. Sólo bitboards y popcount, sin reservar memoria.
      */
-    private int getPositionalValue(PieceType type, PieceColor color, int row, int col) {
-        int tableRow = row, tableCol = col;
-        // Si es NEGRAS, espejamos la tabla
-        // (fila 0 pasa a ser 7, fila 1 pasa a ser 6, etc.)
-        if (color == PieceColor.BLACK) {
-            tableRow = 7 - row;
+    private static int mobility(Board board, PieceColor color) {
+        long occupied = board.getOccupied();
+        long targets = ~board.getPieces(color);
+        int mobility = 0;
+        for (long bb = board.getPieces(PieceType.KNIGHT, color); bb != 0; bb &= bb - 1) {
+            mobility += Long.bitCount(Attacks.knightAttacks(Long.numberOfTrailingZeros(bb)) & targets);
+        }
+        for (long bb = board.getPieces(PieceType.BISHOP, color); bb != 0; bb &= bb - 1) {
+            mobility += Long.bitCount(Attacks.bishopAttacks(Long.numberOfTrailingZeros(bb), occupied) & targets);
         }
+        for (long bb = board.getPieces(PieceType.ROOK, color); bb != 0; bb &= bb - 1) {
+            mobility += Long.bitCount(Attacks.rookAttacks(Long.numberOfTrailingZeros(bb), occupied) & targets);
+        }
+        for (long bb = board.getPieces(PieceType.QUEEN, color); bb != 0; bb &= bb - 1) {
+            mobility += Long.bitCount(Attacks.queenAttacks(Long.numberOfTrailingZeros(bb), occupied) & targets);
+        }
+        for (long bb = board.getPieces(PieceType.KING, color); bb != 0; bb &= bb - 1) {
+            mobility += Long.bitCount(Attacks.kingAttacks(Long.numberOfTrailingZeros(bb)) & targets);
+        }
+        return mobility;
+    }
 
-        switch (type) {
-            case PAWN:
-                return PAWN_TABLE[tableRow][tableCol];
-            case KNIGHT:
-                return KNIGHT_TABLE[tableRow][tableCol];
-            case BISHOP:
-                return BISHOP_TABLE[tableRow][tableCol];
-            case ROOK:
-                return ROOK_TABLE[tableRow][tableCol];
-            case QUEEN:
-                return QUEEN_TABLE[tableRow][tableCol];
-            case KING:
-                return KING_TABLE[tableRow][tableCol];
-            default:
-                return 0;
+    /**
+     * Evaluación estática desde el punto de vista del bando que mueve,
+     * consultando antes la caché de evaluaciones.
+     */
+    private int evaluateBoard(ChessGame game) {
+        if (evalCache == null) {
+            return evaluatePosition(game);
         }
+        long key = game.getPositionHash();
+        int score = evalCache.probe(key);
+        if (score == EvalCache.NOT_FOUND) {
+            score = evaluatePosition(game);
+            evalCache.store(key, score);
+        }
+        return score;
+    }
+
+    private int evaluatePosition(ChessGame game) {
+        Board board = game.getBoard();
+
+        // Material base + bonus por posición (Board lo mantiene al mover) y estructura
+        // de peones; se mezclan los valores de medio juego y de final según la fase
+        int pieceSquare = PieceSquare.blend(board.getPieceSquareScore() + pawnStructure(board), board.getPhase());
+
+        // Pequeño factor para movilidad (de ambos colores)
+        int mobilityEval = (mobility(board, PieceColor.WHITE) - mobility(board, PieceColor.BLACK)) / MOBILITY_DIVISOR;
+
+        int totalEval = pieceSquare + mobilityEval;
+        // Negamax: la evaluación es desde el punto de vista del bando que mueve
+        return (game.getCurrentTurn() == PieceColor.WHITE) ? totalEval : -totalEval;
     }
 }
\ No newline at end of file
@@ -17,6 +17,8 @@ public class ChessGUI extends JFrame {
     private boolean pieceSelected = false;
     private List<Point> highlightedCells;
     private boolean vsBot = false;
+    // Se reutiliza entre jugadas para conservar su tabla de transposiciones
+    private final ChessBot bot = new ChessBot();
 
     // Constructor normal (inicia un ChessGame nuevo)
     public ChessGUI() {
@@ -219,8 +221,7 @@ public class ChessGUI extends JFrame {
             if (game.movePiece(selectedRow, selectedCol, row, col)) {
                 System.out.println("Movimiento realizado.");
                 if (game.isGameOver()) {
-                    String winner = (game.getCurrentTurn() == PieceColor.WHITE) ? "Negras" : "Blancas";
-                    showGameOverDialog(winner);
+                    showGameOverDialog(getWinner());
                 } else {
                     // Si vsBot y ahora es turno de las negras, mover Bot
                     if (vsBot && game.getCurrentTurn() == PieceColor.BLACK) {
@@ -240,25 +241,44 @@ public class ChessGUI extends JFrame {
     }
 
     private void makeBotMove() {
-        ChessBot bot = new ChessBot();
         Move bestMove = bot.findBestMove(game, PieceColor.BLACK);
         if (bestMove != null) {
-            game.movePiece(bestMove.fromRow, bestMove.fromCol, bestMove.toRow, bestMove.toCol);
+            game.movePiece(bestMove);
             drawBoard((JPanel) getContentPane().getComponent(0));
 
             if (game.isGameOver()) {
-                String winner = (game.getCurrentTurn() == PieceColor.WHITE) ? "Negras" : "Blancas";
-                showGameOverDialog(winner);
+                showGameOverDialog(getWinner());
             }
         } else {
             System.out.println("El bot no tiene movimientos válidos (posible jaque mate o ahogado).");
         }
     }
 
+    /**
+     * Ganador de la partida terminada, o null si son tablas.
+     */
+    private String getWinner() {
+        if (game.isDraw()) {
+            return null;
+        }
+        return (game.getCurrentTurn() == PieceColor.WHITE) ? "Negras" : "Blancas";
+    }
+
+    private String getDrawReason() {
+        if (game.isStalemate()) {
+            return "¡Tablas por ahogado!";
+        }
+        if (game.isThreefoldRepetition()) {
+            return "¡Tablas por triple repetición!";
+        }
+        return "¡Tablas por la regla de los 50 movimientos!";
+    }
+
     private void showGameOverDialog(String winner) {
+        String result = (winner == null) ? getDrawReason() : "¡" + winner + " han ganado!";
         int option = JOptionPane.showOptionDialog(
                 this,
-                "¡" + winner + " han ganado!\n¿Qué deseas hacer?",
+                result + "\n¿Qué deseas hacer?",
                 "Fin del juego",
                 JOptionPane.DEFAULT_OPTION,
                 JOptionPane.INFORMATION_MESSAGE,
@@ -3,6 +3,7 @@ package chess;
 import java.awt.Point;
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ChessGame{
@@ -10,13 +11,40 @@ public class ChessGame{
     private Board board;
     private PieceColor currentTurn;
 
-    // Variables para enroque
-    private boolean whiteKingMoved = false;
-    private boolean blackKingMoved = false;
-    private boolean whiteRookLeftMoved = false;
-    private boolean whiteRookRightMoved = false;
-    private boolean blackRookLeftMoved = false;
-    private boolean blackRookRightMoved = false;
+    // Variables para enroque: un bit por cada rey/torre que ya se movió
+    private static final int WHITE_KING_MOVED       = 1;
+    private static final int BLACK_KING_MOVED       = 2;
+    private static final int WHITE_ROOK_LEFT_MOVED  = 4;
+    private static final int WHITE_ROOK_RIGHT_MOVED = 8;
+    private static final int BLACK_ROOK_LEFT_MOVED  = 16;
+    private static final int BLACK_ROOK_RIGHT_MOVED = 32;
+    private int movedFlags = 0;
+
+    // Casilla saltada por el último avance doble de peón (-1 si no hay)
+    private int enPassantSquare = -1;
+
+    // Medios movimientos desde la última captura o movimiento de peón (regla de los 50)
+    private int halfmoveClock = 0;
+
+    // Buffer reutilizable para generar movimientos legales
+    private final int[] moveBuffer = new int[Board.MAX_MOVES];
+    private static final int NO_MOVE = 0;
+
+    /*
+     * Pila de deshacer para makeMove/unmakeMove. Arrays paralelos reservados
+     * de antemano (sólo crecen si una partida supera su capacidad).
+     */
+    private static final int UNDO_CAPACITY = 512;
+    private int[] undoMoves = new int[UNDO_CAPACITY];
+    private ChessPiece[] undoCaptured = new ChessPiece[UNDO_CAPACITY];
+    private int[] undoMovedFlags = new int[UNDO_CAPACITY];
+    private int[] undoEnPassant = new int[UNDO_CAPACITY];
+    private long[] undoHash = new long[UNDO_CAPACITY]; // también es el historial de posiciones
+    private int[] undoHalfmove = new int[UNDO_CAPACITY];
+    private int undoSize = 0;
+
+    // Parte del hash Zobrist que no depende de las piezas: turno, enroques y al paso
+    private long stateKey;
 
     public static final int BOARD_SIZE = 8;
 
@@ -26,6 +54,7 @@ public class ChessGame{
     public ChessGame() {
         board = new Board();
         currentTurn = PieceColor.WHITE; // Comienzan las blancas
+        stateKey = computeStateKey();
     }
 
     // Constructor para cargar una partida existente
@@ -35,12 +64,99 @@ public class ChessGame{
                      boolean bRookLeftMoved, boolean bRookRightMoved) {
         this.board = loadedBoard;
         this.currentTurn = loadedTurn;
-        this.whiteKingMoved = wKingMoved;
-        this.blackKingMoved = bKingMoved;
-        this.whiteRookLeftMoved = wRookLeftMoved;
-        this.whiteRookRightMoved = wRookRightMoved;
-        this.blackRookLeftMoved = bRookLeftMoved;
-        this.blackRookRightMoved = bRookRightMoved;
+        this.movedFlags = packMovedFlags(wKingMoved, bKingMoved,
+                                         wRookLeftMoved, wRookRightMoved,
+                                         bRookLeftMoved, bRookRightMoved);
+        this.stateKey = computeStateKey();
+    }
+
+    /**
+     * Copia independiente de otra partida, incluida la pila de deshacer
+     * (la IA busca en paralelo sobre copias).
+     */
+    public ChessGame(ChessGame other) {
+        this.board = new Board(other.board);
+        this.currentTurn = other.currentTurn;
+        this.movedFlags = other.movedFlags;
+        this.enPassantSquare = other.enPassantSquare;
+        this.undoMoves = other.undoMoves.clone();
+        this.undoCaptured = other.undoCaptured.clone();
+        this.undoMovedFlags = other.undoMovedFlags.clone();
+        this.undoEnPassant = other.undoEnPassant.clone();
+        this.undoHash = other.undoHash.clone();
+        this.undoHalfmove = other.undoHalfmove.clone();
+        this.undoSize = other.undoSize;
+        this.halfmoveClock = other.halfmoveClock;
+        this.stateKey = other.stateKey;
+    }
+
+    /**
+     * Crea una partida a partir de una posición en notación FEN
+     * (piezas, turno, enroques, casilla al paso y reloj de medios movimientos).
+     */
+    public static ChessGame fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        Board board = new Board();
+        for (int r = 0; r < BOARD_SIZE; r++) {
+            for (int c = 0; c < BOARD_SIZE; c++) {
+                board.setPieceAt(r, c, null);
+            }
+        }
+
+        // 1) Piezas, de la fila 8 (row=0) a la 1 (row=7)
+        int row = 0, col = 0;
+        for (char ch : fields[0].toCharArray()) {
+            if (ch == '/') {
+                row++;
+                col = 0;
+            } else if (Character.isDigit(ch)) {
+                col += ch - '0';
+            } else {
+                if (row >= BOARD_SIZE || col >= BOARD_SIZE) {
+                    throw new IllegalArgumentException("FEN inválido: " + fen);
+                }
+                PieceColor color = Character.isUpperCase(ch) ? PieceColor.WHITE : PieceColor.BLACK;
+                board.setPieceAt(row, col++, ChessPiece.of(fenPieceType(ch, fen), color));
+            }
+        }
+
+        // 2) Turno y 3) enroques disponibles
+        PieceColor turn = (fields.length > 1 && fields[1].equals("b")) ? PieceColor.BLACK : PieceColor.WHITE;
+        String castling = (fields.length > 2) ? fields[2] : "-";
+        boolean wK = castling.indexOf('K') >= 0, wQ = castling.indexOf('Q') >= 0;
+        boolean bK = castling.indexOf('k') >= 0, bQ = castling.indexOf('q') >= 0;
+        ChessGame game = new ChessGame(board, turn, !wK && !wQ, !bK && !bQ, !wQ, !wK, !bQ, !bK);
+
+        // 4) Casilla al paso (p.ej. "e3")
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            int epCol = fields[3].charAt(0) - 'a';
+            int epRow = 8 - (fields[3].charAt(1) - '0');
+            game.enPassantSquare = Board.square(epRow, epCol);
+            game.stateKey = game.computeStateKey();
+        }
+
+        // 5) Medios movimientos desde la última captura o movimiento de peón
+        if (fields.length > 4) {
+            try {
+                game.halfmoveClock = Integer.parseInt(fields[4]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("FEN inválido: " + fen, e);
+            }
+        }
+        return game;
+    }
+
+    private static PieceType fenPieceType(char ch, String fen) {
+        switch (Character.toLowerCase(ch)) {
+            case 'p': return PieceType.PAWN;
+            case 'r': return PieceType.ROOK;
+            case 'n': return PieceType.KNIGHT;
+            case 'b': return PieceType.BISHOP;
+            case 'q': return PieceType.QUEEN;
+            case 'k': return PieceType.KING;
+            default:
+                throw new IllegalArgumentException("FEN inválido: " + fen);
+        }
     }
 
     // Métodos Getter
@@ -53,72 +169,279 @@ public class ChessGame{
     }
 
     /**
-     * Cambia manualmente el turno (usado por la IA en simulaciones).
+     * Cambia manualmente el turno (sin tocar el tablero).
      */
     public void forceTurnChange() {
-        currentTurn = (currentTurn == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        switchTurn();
+    }
+
+    /**
+     * Hash Zobrist de 64 bits de la posición: piezas, turno, enroques y al paso.
+     * Se mantiene de forma incremental en makeMove/unmakeMove.
+     */
+    public long getPositionHash() {
+        return board.getZobristKey() ^ stateKey;
     }
 
     /**
      * Mueve la pieza desde (fromRow, fromCol) hasta (toRow, toCol).
-     * Incluye enroque, promoción y registro en la terminal de la notación.
+     * Sólo acepta movimientos legales (el rey propio no puede quedar en jaque).
+     * Incluye enroque, captura al paso, promoción y registro en la terminal de la notación.
      */
     public boolean movePiece(int fromRow, int fromCol, int toRow, int toCol) {
-        ChessPiece piece = board.getPieceAt(fromRow, fromCol);
-        ChessPiece targetPiece = board.getPieceAt(toRow, toCol);
+        return movePiece(fromRow, fromCol, toRow, toCol, null);
+    }
 
+    /**
+     * Igual que movePiece(fromRow, fromCol, toRow, toCol), pero para movimientos
+     * que ya vienen elegidos (p. ej. de la IA): la promoción usa la pieza del Move
+     * (dama si no indica ninguna) y nunca abre el diálogo.
+     */
+    public boolean movePiece(Move move) {
+        PieceType promotion = move.promotion != null ? move.promotion : PieceType.QUEEN;
+        return movePiece(move.fromRow, move.fromCol, move.toRow, move.toCol, promotion);
+    }
+
+    /**
+     * Núcleo de movePiece. Si promotion es null y el movimiento promociona,
+     * se pregunta al jugador.
+     */
+    private boolean movePiece(int fromRow, int fromCol, int toRow, int toCol, PieceType promotion) {
+        ChessPiece piece = board.getPieceAt(fromRow, fromCol);
         if (piece == null || piece.getColor() != currentTurn) {
             return false;
         }
 
-        // No puede capturar a pieza propia
-        if (targetPiece != null && targetPiece.getColor() == piece.getColor()) {
+        // Buscar el movimiento entre los legales de la posición
+        int from = Board.square(fromRow, fromCol);
+        int to = Board.square(toRow, toCol);
+        int count = board.generateMoves(currentTurn, this, moveBuffer);
+        int move = findMove(count, from, to, null);
+        if (move == NO_MOVE) {
             return false;
         }
 
-        // Revisar enroque
-        if (isCastlingMove(piece, fromRow, fromCol, toRow, toCol)) {
-            performCastling(piece, fromRow, fromCol, toRow, toCol);
-            updateMovementFlags(piece, fromRow, fromCol, toRow, toCol);
+        // Promoción: la pieza indicada o, si no hay, la que elija el jugador
+        PieceType chosenType = Move.promotion(move);
+        if (chosenType != null) {
+            chosenType = promotion != null ? promotion : choosePromotionPiece(piece.getColor());
+            move = findMove(count, from, to, chosenType);
+        }
+
+        makeMove(move);
 
+        if ((Move.flags(move) & Move.FLAG_CASTLING) != 0) {
             // Imprimir enroque en la terminal
             if (toCol == 6) {
                 System.out.println("Movimiento: Enroque corto (" + piece.getColor() + ")");
             } else {
                 System.out.println("Movimiento: Enroque largo (" + piece.getColor() + ")");
             }
-
-            switchTurn();
             return true;
         }
 
-        // Movimiento normal
-        if (!isMoveValid(piece, fromRow, fromCol, toRow, toCol)) {
-            return false;
+        if (chosenType != null) {
+            System.out.println(piece.getColor() + " Pawn promociona a " + chosenType);
         }
 
-        // Realizar el movimiento
-        board.movePiece(fromRow, fromCol, toRow, toCol);
-        updateMovementFlags(piece, fromRow, fromCol, toRow, toCol);
+        // Imprimir en consola la notación del movimiento (ej. "WHITE PAWN: e2 -> e4")
+        String fromNotation = getSquareNotation(fromRow, fromCol);
+        String toNotation = getSquareNotation(toRow, toCol);
+        System.out.println(piece.getColor() + " " + piece.getType() + ": " + fromNotation + " -> " + toNotation);
+        return true;
+    }
 
-        // Promoción
-        if (piece.getType() == PieceType.PAWN) {
-            if ((piece.getColor() == PieceColor.WHITE && toRow == 0)
-             || (piece.getColor() == PieceColor.BLACK && toRow == 7)) {
-                PieceType chosenType = choosePromotionPiece(piece.getColor());
-                board.setPieceAt(toRow, toCol, new ChessPiece(chosenType, piece.getColor()));
+    /**
+     * Busca en moveBuffer el movimiento from->to (con la promoción indicada, si la hay).
+     */
+    private int findMove(int count, int from, int to, PieceType promotion) {
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+            if (Move.from(move) == from && Move.to(move) == to
+                    && (promotion == null || Move.promotion(move) == promotion)) {
+                return move;
+            }
+        }
+        return NO_MOVE;
+    }
 
-                System.out.println(piece.getColor() + " Pawn promociona a " + chosenType);
+    /**
+     * Ejecuta un movimiento legal ya generado (ver Board.generateMoves)
+     * y cambia el turno. Guarda en la pila lo necesario para unmakeMove().
+     * Es el mismo camino que usa movePiece, sin validación ni diálogos,
+     * para que la IA pueda llamarlo en cada nodo de la búsqueda.
+     */
+    public void makeMove(int move) {
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+        int from = Move.from(move), to = Move.to(move), flags = Move.flags(move);
+        int fr = from >> 3, fc = from & 7, tr = to >> 3, tc = to & 7;
+        ChessPiece piece = board.getPieceAt(fr, fc);
+
+        // El peón capturado al paso está junto al de origen, no en el destino
+        boolean enPassant = (flags & Move.FLAG_EN_PASSANT) != 0;
+        int capturedRow = enPassant ? fr : tr;
+
+        undoMoves[undoSize] = move;
+        undoCaptured[undoSize] = board.getPieceAt(capturedRow, tc);
+        undoMovedFlags[undoSize] = movedFlags;
+        undoEnPassant[undoSize] = enPassantSquare;
+        undoHash[undoSize] = getPositionHash();
+        undoHalfmove[undoSize] = halfmoveClock;
+        undoSize++;
+        int oldMovedFlags = movedFlags;
+        int oldEnPassant = enPassantSquare;
+
+        // Capturas y movimientos de peón son irreversibles: reinician el reloj
+        boolean irreversible = undoCaptured[undoSize - 1] != null || piece.getType() == PieceType.PAWN;
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+
+        if (enPassant) {
+            board.setPieceAt(fr, tc, null);
+        }
+
+        if ((flags & Move.FLAG_CASTLING) != 0) {
+            performCastling(piece, fr, fc, tr, tc);
+        } else {
+            board.movePiece(fr, fc, tr, tc);
+        }
+
+        PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            board.setPieceAt(tr, tc, ChessPiece.of(promotion, piece.getColor()));
+        }
+
+        updateMovementFlags(piece, fr, fc, tr, tc);
+        updateCapturedRookFlags(tr, tc);
+
+        // Tras un avance doble, la casilla saltada queda disponible para capturar al paso
+        enPassantSquare = ((flags & Move.FLAG_DOUBLE_PUSH) != 0) ? Board.square((fr + tr) / 2, fc) : -1;
+
+        // Hash: el de las piezas lo actualiza Board; aquí enroques y al paso
+        if (movedFlags != oldMovedFlags) {
+            stateKey ^= Zobrist.castling(castlingRights(oldMovedFlags))
+                      ^ Zobrist.castling(castlingRights(movedFlags));
+        }
+        stateKey ^= enPassantKey(oldEnPassant) ^ enPassantKey(enPassantSquare);
+
+        switchTurn();
+    }
+
+    /**
+     * Deshace el último makeMove(), restaurando pieza capturada,
+     * enroques y casilla al paso.
+     */
+    public void unmakeMove() {
+        undoSize--;
+        int move = undoMoves[undoSize];
+        int from = Move.from(move), to = Move.to(move), flags = Move.flags(move);
+        int fr = from >> 3, fc = from & 7, tr = to >> 3, tc = to & 7;
+
+        switchTurn();
+
+        ChessPiece piece = board.getPieceAt(tr, tc);
+        if ((flags & Move.FLAG_PROMOTION) != 0) {
+            piece = ChessPiece.of(PieceType.PAWN, piece.getColor());
+        }
+        board.setPieceAt(tr, tc, null);
+        board.setPieceAt(fr, fc, piece);
+
+        if ((flags & Move.FLAG_CASTLING) != 0) {
+            // Devolver la torre a su esquina
+            if (tc == 6) {
+                board.movePiece(fr, 5, fr, 7);
+            } else {
+                board.movePiece(fr, 3, fr, 0);
             }
         }
 
-        // Imprimir en consola la notación del movimiento (ej. "WHITE PAWN: e2 -> e4")
-        String fromNotation = getSquareNotation(fromRow, fromCol);
-        String toNotation = getSquareNotation(toRow, toCol);
-        System.out.println(piece.getColor() + " " + piece.getType() + ": " + fromNotation + " -> " + toNotation);
+        ChessPiece captured = undoCaptured[undoSize];
+        if (captured != null) {
+            int capturedRow = ((flags & Move.FLAG_EN_PASSANT) != 0) ? fr : tr;
+            board.setPieceAt(capturedRow, tc, captured);
+        }
+        undoCaptured[undoSize] = null;
+
+        movedFlags = undoMovedFlags[undoSize];
+        enPassantSquare = undoEnPassant[undoSize];
+        halfmoveClock = undoHalfmove[undoSize];
+        // Con las piezas ya restauradas, el hash guardado da la parte de estado
+        stateKey = undoHash[undoSize] ^ board.getZobristKey();
+    }
 
+    /**
+     * Movimiento nulo: pasa el turno sin mover ninguna pieza (lo usa la
+     * poda de movimiento nulo de la IA). No debe usarse estando en jaque.
+     */
+    public void makeNullMove() {
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+        undoMoves[undoSize] = NO_MOVE;
+        undoCaptured[undoSize] = null;
+        undoMovedFlags[undoSize] = movedFlags;
+        undoEnPassant[undoSize] = enPassantSquare;
+        undoHash[undoSize] = getPositionHash();
+        undoHalfmove[undoSize] = halfmoveClock;
+        undoSize++;
+
+        // Las repeticiones no se buscan más allá de un movimiento nulo
+        halfmoveClock = 0;
+        stateKey ^= enPassantKey(enPassantSquare);
+        enPassantSquare = -1;
         switchTurn();
-        return true;
+    }
+
+    /**
+     * Deshace el último makeNullMove().
+     */
+    public void unmakeNullMove() {
+        undoSize--;
+        switchTurn();
+        enPassantSquare = undoEnPassant[undoSize];
+        halfmoveClock = undoHalfmove[undoSize];
+        stateKey = undoHash[undoSize] ^ board.getZobristKey();
+    }
+
+    private void growUndoStack() {
+        int capacity = undoMoves.length * 2;
+        undoMoves = Arrays.copyOf(undoMoves, capacity);
+        undoCaptured = Arrays.copyOf(undoCaptured, capacity);
+        undoMovedFlags = Arrays.copyOf(undoMovedFlags, capacity);
+        undoEnPassant = Arrays.copyOf(undoEnPassant, capacity);
+        undoHash = Arrays.copyOf(undoHash, capacity);
+        undoHalfmove = Arrays.copyOf(undoHalfmove, capacity);
+    }
+
+    // ------------------- Hash Zobrist ---------------------
+
+    private long computeStateKey() {
+        long key = Zobrist.castling(castlingRights(movedFlags)) ^ enPassantKey(enPassantSquare);
+        if (currentTurn == PieceColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        return key;
+    }
+
+    private static long enPassantKey(int square) {
+        return (square < 0) ? 0L : Zobrist.enPassant(square & 7);
+    }
+
+    /**
+     * Enroques aún posibles según los flags de movimiento (bits de Zobrist).
+     */
+    private static int castlingRights(int flags) {
+        int rights = 0;
+        if ((flags & WHITE_KING_MOVED) == 0) {
+            if ((flags & WHITE_ROOK_RIGHT_MOVED) == 0) rights |= Zobrist.WHITE_KINGSIDE;
+            if ((flags & WHITE_ROOK_LEFT_MOVED) == 0) rights |= Zobrist.WHITE_QUEENSIDE;
+        }
+        if ((flags & BLACK_KING_MOVED) == 0) {
+            if ((flags & BLACK_ROOK_RIGHT_MOVED) == 0) rights |= Zobrist.BLACK_KINGSIDE;
+            if ((flags & BLACK_ROOK_LEFT_MOVED) == 0) rights |= Zobrist.BLACK_QUEENSIDE;
+        }
+        return rights;
     }
 
     /**
@@ -135,177 +458,101 @@ public class ChessGame{
      * Devuelve los movimientos válidos de la pieza en (fromRow, fromCol).
      */
     public List<Point> getValidMoves(int fromRow, int fromCol) {
-        List<Point> validMoves = new ArrayList<>();
         ChessPiece piece = board.getPieceAt(fromRow, fromCol);
-        if (piece == null) return validMoves;
-        if (piece.getColor() != currentTurn) return validMoves;
-
-        validMoves = board.getValidMoves(fromRow, fromCol, this);
-
-        // Evitar capturas propias, etc. (en Board ya se filtra, pero por seguridad)
-        List<Point> filtered = new ArrayList<>();
-        for (Point p : validMoves) {
-            ChessPiece target = board.getPieceAt(p.x, p.y);
-            if (target == null || target.getColor() != piece.getColor()) {
-                filtered.add(p);
-            }
+        if (piece == null || piece.getColor() != currentTurn) {
+            return new ArrayList<>();
         }
-        return filtered;
+        // Board sólo devuelve movimientos legales
+        return board.getValidMoves(fromRow, fromCol, this);
     }
 
     /**
-     * Determina si la partida ha terminado: si falta el rey blanco o negro.
+     * Determina si la partida ha terminado: jaque mate, tablas
+     * o (en posiciones montadas a mano) falta el rey blanco o negro.
      */
     public boolean isGameOver() {
-        boolean whiteKingPresent = false;
-        boolean blackKingPresent = false;
-
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                ChessPiece pc = board.getPieceAt(row, col);
-                if (pc != null && pc.getType() == PieceType.KING) {
-                    if (pc.getColor() == PieceColor.WHITE) whiteKingPresent = true;
-                    if (pc.getColor() == PieceColor.BLACK) blackKingPresent = true;
-                }
-            }
-        }
-        return (!whiteKingPresent || !blackKingPresent);
-    }
-
-    // ------------------- Validaciones de movimiento (sin enroque) ---------------------
-
-    private boolean isMoveValid(ChessPiece piece, int fr, int fc, int tr, int tc) {
-        switch (piece.getType()) {
-            case PAWN:
-                return isValidPawnMove(piece, fr, fc, tr, tc);
-            case ROOK:
-                return isValidRookMove(fr, fc, tr, tc);
-            case KNIGHT:
-                return isValidKnightMove(fr, fc, tr, tc);
-            case BISHOP:
-                return isValidBishopMove(fr, fc, tr, tc);
-            case QUEEN:
-                return isValidQueenMove(fr, fc, tr, tc);
-            case KING:
-                return isValidKingMove(fr, fc, tr, tc);
-            default:
-                return false;
+        if (board.getKingSquare(PieceColor.WHITE) < 0
+            || board.getKingSquare(PieceColor.BLACK) < 0) {
+            return true;
         }
+        return !hasLegalMoves() || isThreefoldRepetition() || isFiftyMoveRule();
     }
 
-    private boolean isValidPawnMove(ChessPiece piece, int fr, int fc, int tr, int tc) {
-        int direction = (piece.getColor() == PieceColor.WHITE) ? -1 : 1;
-        int startRow = (piece.getColor() == PieceColor.WHITE) ? 6 : 1;
-
-        // Movimiento vertical
-        if (fc == tc) {
-            // Avance de 1
-            if (tr == fr + direction && board.getPieceAt(tr, tc) == null) {
-                return true;
-            }
-            // Avance de 2 (fila inicial)
-            if (fr == startRow && tr == fr + 2 * direction) {
-                if (board.getPieceAt(fr + direction, fc) == null
-                 && board.getPieceAt(tr, tc) == null) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        // Captura diagonal
-        if (Math.abs(fc - tc) == 1 && tr == fr + direction) {
-            ChessPiece target = board.getPieceAt(tr, tc);
-            if (target != null && target.getColor() != piece.getColor()) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * El rey del jugador con el turno está atacado.
+     */
+    public boolean isInCheck() {
+        return board.isInCheck(currentTurn);
     }
 
-    private boolean isValidRookMove(int fr, int fc, int tr, int tc) {
-        if (fr != tr && fc != tc) {
-            return false;
-        }
-        // Revisar camino
-        if (fr == tr) {
-            int step = (tc > fc) ? 1 : -1;
-            for (int c = fc + step; c != tc; c += step) {
-                if (board.getPieceAt(fr, c) != null) {
-                    return false;
-                }
-            }
-        } else {
-            int step = (tr > fr) ? 1 : -1;
-            for (int r = fr + step; r != tr; r += step) {
-                if (board.getPieceAt(r, fc) != null) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    public boolean isCheckmate() {
+        return isInCheck() && !hasLegalMoves();
     }
 
-    private boolean isValidKnightMove(int fr, int fc, int tr, int tc) {
-        int rowDiff = Math.abs(fr - tr);
-        int colDiff = Math.abs(fc - tc);
-        return (rowDiff == 2 && colDiff == 1) || (rowDiff == 1 && colDiff == 2);
+    public boolean isStalemate() {
+        return !isInCheck() && !hasLegalMoves();
     }
 
-    private boolean isValidBishopMove(int fr, int fc, int tr, int tc) {
-        if (Math.abs(fr - tr) != Math.abs(fc - tc)) {
-            return false;
-        }
-        int rowStep = (tr > fr) ? 1 : -1;
-        int colStep = (tc > fc) ? 1 : -1;
-        int r = fr + rowStep;
-        int c = fc + colStep;
-        while (r != tr && c != tc) {
-            if (board.getPieceAt(r, c) != null) {
-                return false;
-            }
-            r += rowStep;
-            c += colStep;
-        }
-        return true;
+    /**
+     * Tablas por ahogado, triple repetición o regla de los 50 movimientos.
+     */
+    public boolean isDraw() {
+        return isStalemate() || isThreefoldRepetition() || isFiftyMoveRule();
     }
 
-    private boolean isValidQueenMove(int fr, int fc, int tr, int tc) {
-        return (isValidRookMove(fr, fc, tr, tc) || isValidBishopMove(fr, fc, tr, tc));
+    /**
+     * La posición actual ya se dio antes (la IA lo puntúa como tablas).
+     */
+    public boolean isRepetition() {
+        return repetitionCount() >= 1;
     }
 
-    private boolean isValidKingMove(int fr, int fc, int tr, int tc) {
-        int rowDiff = Math.abs(fr - tr);
-        int colDiff = Math.abs(fc - tc);
-        return (rowDiff <= 1 && colDiff <= 1);
+    /**
+     * La posición actual se ha dado tres veces.
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitionCount() >= 2;
     }
 
-    // ------------------- Enroque ---------------------
+    /**
+     * 50 movimientos de cada bando sin capturas ni movimientos de peón
+     * (el mate en el último movimiento tiene prioridad).
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100 && !isCheckmate();
+    }
 
-    private boolean isCastlingMove(ChessPiece piece, int fr, int fc, int tr, int tc) {
-        if (piece.getType() != PieceType.KING) return false;
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
 
-        // Enroque corto (4->6)
-        if (fc == 4 && tc == 6 && fr == tr) {
-            if (!hasKingMoved(piece.getColor()) && !hasRookMoved(piece.getColor(), true)) {
-                // Además, verificar que no haya piezas entre el rey y la torre
-                if (board.getPieceAt(fr, 5) == null && board.getPieceAt(fr, 6) == null) {
-                    return true;
-                }
-            }
-        }
-        // Enroque largo (4->2)
-        if (fc == 4 && tc == 2 && fr == tr) {
-            if (!hasKingMoved(piece.getColor()) && !hasRookMoved(piece.getColor(), false)) {
-                // Además, verificar que no haya piezas entre el rey y la torre
-                if (board.getPieceAt(fr, 1) == null && board.getPieceAt(fr, 2) == null && board.getPieceAt(fr, 3) == null) {
-                    return true;
-                }
+    /**
+     * Veces que la posición actual aparece antes en el historial. Sólo se
+     * miran las posiciones desde el último movimiento irreversible, y de
+     * ellas sólo las que tienen el mismo turno (una de cada dos).
+     */
+    private int repetitionCount() {
+        long hash = getPositionHash();
+        int limit = Math.max(0, undoSize - halfmoveClock);
+        int count = 0;
+        for (int i = undoSize - 2; i >= limit; i -= 2) {
+            if (undoHash[i] == hash) {
+                count++;
             }
         }
-        return false;
+        return count;
     }
 
+    private boolean hasLegalMoves() {
+        return board.generateMoves(currentTurn, this, moveBuffer) > 0;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    // ------------------- Enroque ---------------------
+
     private void performCastling(ChessPiece king, int fr, int fc, int tr, int tc) {
         board.movePiece(fr, fc, tr, tc);
         if (tc == 6) {
@@ -317,37 +564,61 @@ public class ChessGame{
         }
     }
 
+    // Una captura sobre la casilla inicial de una torre anula ese enroque
+    private void updateCapturedRookFlags(int row, int col) {
+        if (col != 0 && col != 7) return;
+        if (row == 7) {
+            movedFlags |= (col == 0) ? WHITE_ROOK_LEFT_MOVED : WHITE_ROOK_RIGHT_MOVED;
+        } else if (row == 0) {
+            movedFlags |= (col == 0) ? BLACK_ROOK_LEFT_MOVED : BLACK_ROOK_RIGHT_MOVED;
+        }
+    }
+
     private void updateMovementFlags(ChessPiece piece, int fr, int fc, int tr, int tc) {
         PieceColor color = piece.getColor();
         if (piece.getType() == PieceType.KING) {
-            if (color == PieceColor.WHITE) whiteKingMoved = true;
-            else blackKingMoved = true;
+            movedFlags |= (color == PieceColor.WHITE) ? WHITE_KING_MOVED : BLACK_KING_MOVED;
         } else if (piece.getType() == PieceType.ROOK) {
             if (color == PieceColor.WHITE && fr == 7) {
-                if (fc == 0) whiteRookLeftMoved = true;
-                if (fc == 7) whiteRookRightMoved = true;
+                if (fc == 0) movedFlags |= WHITE_ROOK_LEFT_MOVED;
+                if (fc == 7) movedFlags |= WHITE_ROOK_RIGHT_MOVED;
             }
             if (color == PieceColor.BLACK && fr == 0) {
-                if (fc == 0) blackRookLeftMoved = true;
-                if (fc == 7) blackRookRightMoved = true;
+                if (fc == 0) movedFlags |= BLACK_ROOK_LEFT_MOVED;
+                if (fc == 7) movedFlags |= BLACK_ROOK_RIGHT_MOVED;
             }
         }
     }
 
     public boolean hasKingMoved(PieceColor color) {
-        return (color == PieceColor.WHITE) ? whiteKingMoved : blackKingMoved;
+        int flag = (color == PieceColor.WHITE) ? WHITE_KING_MOVED : BLACK_KING_MOVED;
+        return (movedFlags & flag) != 0;
     }
 
     public boolean hasRookMoved(PieceColor color, boolean isRight) {
+        int flag;
         if (color == PieceColor.WHITE) {
-            return isRight ? whiteRookRightMoved : whiteRookLeftMoved;
+            flag = isRight ? WHITE_ROOK_RIGHT_MOVED : WHITE_ROOK_LEFT_MOVED;
         } else {
-            return isRight ? blackRookRightMoved : blackRookLeftMoved;
+            flag = isRight ? BLACK_ROOK_RIGHT_MOVED : BLACK_ROOK_LEFT_MOVED;
         }
+        return (movedFlags & flag) != 0;
+    }
+
+    private static int packMovedFlags(boolean wKingMoved, boolean bKingMoved,
+                                      boolean wRookLeftMoved, boolean wRookRightMoved,
+                                      boolean bRookLeftMoved, boolean bRookRightMoved) {
+        return (wKingMoved ? WHITE_KING_MOVED : 0)
+             | (bKingMoved ? BLACK_KING_MOVED : 0)
+             | (wRookLeftMoved ? WHITE_ROOK_LEFT_MOVED : 0)
+             | (wRookRightMoved ? WHITE_ROOK_RIGHT_MOVED : 0)
+             | (bRookLeftMoved ? BLACK_ROOK_LEFT_MOVED : 0)
+             | (bRookRightMoved ? BLACK_ROOK_RIGHT_MOVED : 0);
     }
 
     private void switchTurn() {
         currentTurn = (currentTurn == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        stateKey ^= Zobrist.blackToMove();
     }
 
     /**
@@ -389,9 +660,9 @@ public class ChessGame{
             pw.println(currentTurn.toString()); // "WHITE" o "BLACK"
 
             // 3) Flags de enroque
-            pw.println(whiteKingMoved + " " + blackKingMoved + " "
-                     + whiteRookLeftMoved + " " + whiteRookRightMoved + " "
-                     + blackRookLeftMoved + " " + blackRookRightMoved);
+            pw.println(hasKingMoved(PieceColor.WHITE) + " " + hasKingMoved(PieceColor.BLACK) + " "
+                     + hasRookMoved(PieceColor.WHITE, false) + " " + hasRookMoved(PieceColor.WHITE, true) + " "
+                     + hasRookMoved(PieceColor.BLACK, false) + " " + hasRookMoved(PieceColor.BLACK, true));
 
             // 4) Posiciones de las piezas
             for (int row = 0; row < BOARD_SIZE; row++) {
@@ -437,12 +708,13 @@ public class ChessGame{
             // Leer flags
             String flagsLine = br.readLine();
             String[] f = flagsLine.split(" ");
-            whiteKingMoved      = Boolean.parseBoolean(f[0]);
-            blackKingMoved      = Boolean.parseBoolean(f[1]);
-            whiteRookLeftMoved  = Boolean.parseBoolean(f[2]);
-            whiteRookRightMoved = Boolean.parseBoolean(f[3]);
-            blackRookLeftMoved  = Boolean.parseBoolean(f[4]);
-            blackRookRightMoved = Boolean.parseBoolean(f[5]);
+            movedFlags = packMovedFlags(Boolean.parseBoolean(f[0]), Boolean.parseBoolean(f[1]),
+                                        Boolean.parseBoolean(f[2]), Boolean.parseBoolean(f[3]),
+                                        Boolean.parseBoolean(f[4]), Boolean.parseBoolean(f[5]));
+            enPassantSquare = -1;
+            halfmoveClock = 0;
+            undoSize = 0;
+            stateKey = computeStateKey();
 
             // Leer piezas
             String line;
@@ -454,7 +726,7 @@ public class ChessGame{
                 PieceType type = PieceType.valueOf(parts[2]);   // PAWN, ROOK, etc.
                 PieceColor color = PieceColor.valueOf(parts[3]); // WHITE, BLACK
 
-                board.setPieceAt(row, col, new ChessPiece(type, color));
+                board.setPieceAt(row, col, ChessPiece.of(type, color));
             }
 
             System.out.println("Partida cargada desde " + filePath);
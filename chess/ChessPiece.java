@@ -1,12 +1,47 @@
 package chess;
 
+/**
+ * Pieza inmutable. Sólo existen 12 instancias (una por tipo y color),
+ * compartidas por todos los tableros: se obtienen con ChessPiece.of().
+ */
 public class ChessPiece {
-    private PieceType type;
-    private PieceColor color;
 
-    public ChessPiece(PieceType type, PieceColor color) {
+    /** Número de piezas distintas (6 tipos x 2 colores). */
+    public static final int COUNT = 12;
+
+    private static final ChessPiece[] PIECES = new ChessPiece[COUNT];
+
+    static {
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[code(type, color)] = new ChessPiece(type, color);
+            }
+        }
+    }
+
+    private final PieceType type;
+    private final PieceColor color;
+    private final int code;
+
+    private ChessPiece(PieceType type, PieceColor color) {
         this.type = type;
         this.color = color;
+        this.code = code(type, color);
+    }
+
+    public static ChessPiece of(PieceType type, PieceColor color) {
+        return PIECES[code(type, color)];
+    }
+
+    public static ChessPiece fromCode(int code) {
+        return PIECES[code];
+    }
+
+    /**
+     * Código 0..11 (color * 6 + tipo) usable como índice de arrays.
+     */
+    public static int code(PieceType type, PieceColor color) {
+        return color.ordinal() * 6 + type.ordinal();
     }
 
     public PieceType getType() {
@@ -16,4 +51,8 @@ public class ChessPiece {
     public PieceColor getColor() {
         return color;
     }
-}
\ No newline at end of file
+
+    public int getCode() {
+        return code;
+    }
+}
@@ -129,62 +129,62 @@ public class ChessProblemGUI extends JFrame {
                 // Problema 1: Blancas con 2 torres y rey vs Rey negro
                 this.moveLimit = 20; // 10 movimientos (20 plies)
                 // Blancas: Rey e1 => row=7,col=4
-                game.getBoard().setPieceAt(7, 4, new ChessPiece(PieceType.KING, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 4, ChessPiece.of(PieceType.KING, PieceColor.WHITE));
                 // Torres a1 y h1 => row=7,col=0 y row=7,col=7
-                game.getBoard().setPieceAt(7, 0, new ChessPiece(PieceType.ROOK, PieceColor.WHITE));
-                game.getBoard().setPieceAt(7, 7, new ChessPiece(PieceType.ROOK, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 0, ChessPiece.of(PieceType.ROOK, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 7, ChessPiece.of(PieceType.ROOK, PieceColor.WHITE));
                 // Negras: Rey e8 => row=0,col=4
-                game.getBoard().setPieceAt(0, 4, new ChessPiece(PieceType.KING, PieceColor.BLACK));
+                game.getBoard().setPieceAt(0, 4, ChessPiece.of(PieceType.KING, PieceColor.BLACK));
                 break;
 
             case 2:
                 // Problema 2: Mate en 3 movimientos
                 this.moveLimit = 6;
                 // Blancas: Rey e1, Dama h5, Caballo f6
-                game.getBoard().setPieceAt(7, 4, new ChessPiece(PieceType.KING, PieceColor.WHITE));
-                game.getBoard().setPieceAt(3, 7, new ChessPiece(PieceType.QUEEN, PieceColor.WHITE));
-                game.getBoard().setPieceAt(2, 5, new ChessPiece(PieceType.KNIGHT, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 4, ChessPiece.of(PieceType.KING, PieceColor.WHITE));
+                game.getBoard().setPieceAt(3, 7, ChessPiece.of(PieceType.QUEEN, PieceColor.WHITE));
+                game.getBoard().setPieceAt(2, 5, ChessPiece.of(PieceType.KNIGHT, PieceColor.WHITE));
                 // Negras: Rey g8, Torre e8
-                game.getBoard().setPieceAt(0, 6, new ChessPiece(PieceType.KING, PieceColor.BLACK));
-                game.getBoard().setPieceAt(0, 4, new ChessPiece(PieceType.ROOK, PieceColor.BLACK));
+                game.getBoard().setPieceAt(0, 6, ChessPiece.of(PieceType.KING, PieceColor.BLACK));
+                game.getBoard().setPieceAt(0, 4, ChessPiece.of(PieceType.ROOK, PieceColor.BLACK));
                 break;
 
             case 3:
                 // Problema 3: Mate en 3 movimientos
                 this.moveLimit = 6;
                 // Blancas: Rey h1, Dama h4, Alfil c4
-                game.getBoard().setPieceAt(7, 7, new ChessPiece(PieceType.KING, PieceColor.WHITE));
-                game.getBoard().setPieceAt(4, 7, new ChessPiece(PieceType.QUEEN, PieceColor.WHITE));
-                game.getBoard().setPieceAt(4, 2, new ChessPiece(PieceType.BISHOP, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 7, ChessPiece.of(PieceType.KING, PieceColor.WHITE));
+                game.getBoard().setPieceAt(4, 7, ChessPiece.of(PieceType.QUEEN, PieceColor.WHITE));
+                game.getBoard().setPieceAt(4, 2, ChessPiece.of(PieceType.BISHOP, PieceColor.WHITE));
                 // Negras: Rey g7, Peones f6 y h6
-                game.getBoard().setPieceAt(1, 6, new ChessPiece(PieceType.KING, PieceColor.BLACK));
-                game.getBoard().setPieceAt(2, 5, new ChessPiece(PieceType.PAWN, PieceColor.BLACK));
-                game.getBoard().setPieceAt(2, 7, new ChessPiece(PieceType.PAWN, PieceColor.BLACK));
+                game.getBoard().setPieceAt(1, 6, ChessPiece.of(PieceType.KING, PieceColor.BLACK));
+                game.getBoard().setPieceAt(2, 5, ChessPiece.of(PieceType.PAWN, PieceColor.BLACK));
+                game.getBoard().setPieceAt(2, 7, ChessPiece.of(PieceType.PAWN, PieceColor.BLACK));
                 break;
 
             case 4:
                 // Problema 4: Mate en 4 movimientos
                 this.moveLimit = 8;
                 // Blancas: Rey g1, Dama e5, Torre h1
-                game.getBoard().setPieceAt(7, 6, new ChessPiece(PieceType.KING, PieceColor.WHITE));
-                game.getBoard().setPieceAt(3, 4, new ChessPiece(PieceType.QUEEN, PieceColor.WHITE));
-                game.getBoard().setPieceAt(7, 7, new ChessPiece(PieceType.ROOK, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 6, ChessPiece.of(PieceType.KING, PieceColor.WHITE));
+                game.getBoard().setPieceAt(3, 4, ChessPiece.of(PieceType.QUEEN, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 7, ChessPiece.of(PieceType.ROOK, PieceColor.WHITE));
                 // Negras: Rey g8, Torre f8
-                game.getBoard().setPieceAt(0, 6, new ChessPiece(PieceType.KING, PieceColor.BLACK));
-                game.getBoard().setPieceAt(0, 5, new ChessPiece(PieceType.ROOK, PieceColor.BLACK));
+                game.getBoard().setPieceAt(0, 6, ChessPiece.of(PieceType.KING, PieceColor.BLACK));
+                game.getBoard().setPieceAt(0, 5, ChessPiece.of(PieceType.ROOK, PieceColor.BLACK));
                 break;
 
             case 5:
                 // Problema 5: Mate en 4 movimientos
                 this.moveLimit = 8;
                 // Blancas: Rey e1, Dama f6, Torre d1
-                game.getBoard().setPieceAt(7, 4, new ChessPiece(PieceType.KING, PieceColor.WHITE));
-                game.getBoard().setPieceAt(2, 5, new ChessPiece(PieceType.QUEEN, PieceColor.WHITE));
-                game.getBoard().setPieceAt(7, 3, new ChessPiece(PieceType.ROOK, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 4, ChessPiece.of(PieceType.KING, PieceColor.WHITE));
+                game.getBoard().setPieceAt(2, 5, ChessPiece.of(PieceType.QUEEN, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 3, ChessPiece.of(PieceType.ROOK, PieceColor.WHITE));
                 // Negras: Rey e8, Peones f7 y e7
-                game.getBoard().setPieceAt(0, 4, new ChessPiece(PieceType.KING, PieceColor.BLACK));
-                game.getBoard().setPieceAt(1, 5, new ChessPiece(PieceType.PAWN, PieceColor.BLACK));
-                game.getBoard().setPieceAt(1, 4, new ChessPiece(PieceType.PAWN, PieceColor.BLACK));
+                game.getBoard().setPieceAt(0, 4, ChessPiece.of(PieceType.KING, PieceColor.BLACK));
+                game.getBoard().setPieceAt(1, 5, ChessPiece.of(PieceType.PAWN, PieceColor.BLACK));
+                game.getBoard().setPieceAt(1, 4, ChessPiece.of(PieceType.PAWN, PieceColor.BLACK));
                 break;
 
             // Puedes añadir más casos para problemas 6 a 10
@@ -193,9 +193,9 @@ public class ChessProblemGUI extends JFrame {
                 // Si no es 1..5, coloco algo genérico:
                 this.moveLimit = 10;
                 // Blancas: Rey e1
-                game.getBoard().setPieceAt(7, 4, new ChessPiece(PieceType.KING, PieceColor.WHITE));
+                game.getBoard().setPieceAt(7, 4, ChessPiece.of(PieceType.KING, PieceColor.WHITE));
                 // Negras: Rey e8
-                game.getBoard().setPieceAt(0, 4, new ChessPiece(PieceType.KING, PieceColor.BLACK));
+                game.getBoard().setPieceAt(0, 4, ChessPiece.of(PieceType.KING, PieceColor.BLACK));
                 break;
         }
     }
@@ -209,7 +209,7 @@ public class ChessProblemGUI extends JFrame {
         Move blackMove = chessBot.findBestMove(game, PieceColor.BLACK);
         if (blackMove != null) {
             System.out.println("ChessBot intenta mover de (" + blackMove.fromRow + "," + blackMove.fromCol + ") a (" + blackMove.toRow + "," + blackMove.toCol + ")");
-            boolean moved = game.movePiece(blackMove.fromRow, blackMove.fromCol, blackMove.toRow, blackMove.toCol);
+            boolean moved = game.movePiece(blackMove);
             if (moved) {
                 moveCount++;
                 System.out.println("ChessBot movió correctamente.");
@@ -233,7 +233,7 @@ public class ChessProblemGUI extends JFrame {
      */
     private void checkProblemStatus() {
         // 1) ¿Se logró mate?
-        if (game.isGameOver()) {
+        if (game.isCheckmate()) {
             System.out.println("El juego ha terminado. Se ha logrado mate.");
             showWinDialog();
             return;
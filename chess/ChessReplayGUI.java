@@ -45,9 +45,10 @@ public class ChessReplayGUI extends JFrame {
             "b5a4", "a6a5",    // 12. Aa4 a5
             "a4c6", "b7c6",    // 13. Axc6+ bxc6
             "d3d4", "e5d4",    // 14. d4 exd4
-            "f3d4", "d8e7",    // 15. Cxd4 Dd7
-            "d4c6", "e8d8",    // 16. Cxc6+ bxc6
-            "c6d8",     // 17. Ad6+ Axd6++
+            "f3d4", "d8e7",    // 15. Cxd4 De7
+            "d4c6", "h5d1",    // 16. Cxc6 Axd1
+            "c3d5", "e7f8",    // 17. Cd5 Df8
+            "d5f6",            // 18. Cxf6#
         };
 
         pieceIcons = new HashMap<>();
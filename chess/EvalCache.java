@@ -0,0 +1,77 @@
+package chess;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de evaluaciones estáticas indexada por el hash de la posición
+ * (ChessGame.getPositionHash). De acceso directo y con pérdidas: cada
+ * posición nueva sustituye a la que ocupaba su casilla.
+ *
+ * Se comparte entre los hilos de la búsqueda sin cerrojos: como en
+ * TranspositionTable, en keys se guarda clave ^ puntuación, así una entrada
+ * escrita a medias por dos hilos no coincide con ninguna clave.
+ * Los contadores de aciertos y fallos sirven para elegir el tamaño.
+ */
+public class EvalCache {
+
+    // Devuelto por probe cuando la posición no está en la caché
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    private static final int BYTES_PER_ENTRY = 12;
+
+    private final long[] keys; // clave ^ puntuación
+    private final int[] scores;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public EvalCache(int sizeMb) {
+        long entries = Math.max(1, (long) sizeMb * 1024 * 1024 / BYTES_PER_ENTRY);
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        keys = new long[size];
+        scores = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Evaluación guardada para 'key', o NOT_FOUND.
+     */
+    public int probe(long key) {
+        int index = (int) key & mask;
+        int score = scores[index];
+        if ((keys[index] ^ score) == key) {
+            hits.increment();
+            return score;
+        }
+        misses.increment();
+        return NOT_FOUND;
+    }
+
+    public void store(long key, int score) {
+        int index = (int) key & mask;
+        keys[index] = key ^ score;
+        scores[index] = score;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Proporción de consultas que acertaron (0 si aún no hubo ninguna).
+     */
+    public double getHitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return (total == 0) ? 0 : (double) h / total;
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -3,6 +3,22 @@ package chess;
 public class Move {
     public int fromRow, fromCol;
     public int toRow, toCol;
+    public PieceType promotion; // null si no es promoción
+
+    /*
+     * Codificación compacta en un int, usada por el generador y la búsqueda:
+     *  bits 0-5   casilla origen (row * 8 + col)
+     *  bits 6-11  casilla destino
+     *  bits 12-16 flags
+     *  bits 17-19 tipo de pieza de promoción (ordinal de PieceType)
+     */
+    public static final int FLAG_CAPTURE     = 1;
+    public static final int FLAG_PROMOTION   = 2;
+    public static final int FLAG_CASTLING    = 4;
+    public static final int FLAG_DOUBLE_PUSH = 8;
+    public static final int FLAG_EN_PASSANT  = 16;
+
+    private static final PieceType[] TYPES = PieceType.values();
 
     public Move(int fromRow, int fromCol, int toRow, int toCol) {
         this.fromRow = fromRow;
@@ -10,4 +26,44 @@ public class Move {
         this.toRow = toRow;
         this.toCol = toCol;
     }
-}
\ No newline at end of file
+
+    /**
+     * Construye un Move a partir de su forma compacta.
+     */
+    public Move(int move) {
+        this(from(move) >> 3, from(move) & 7, to(move) >> 3, to(move) & 7);
+        this.promotion = promotion(move);
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int encode(int from, int to, int flags, PieceType promotion) {
+        return encode(from, to, flags | FLAG_PROMOTION) | (promotion.ordinal() << 17);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0x1F;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & FLAG_CAPTURE) != 0;
+    }
+
+    /**
+     * Tipo de promoción, o null si el movimiento no promociona.
+     */
+    public static PieceType promotion(int move) {
+        if ((flags(move) & FLAG_PROMOTION) == 0) return null;
+        return TYPES[(move >>> 17) & 0x7];
+    }
+}
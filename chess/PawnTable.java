@@ -0,0 +1,46 @@
+package chess;
+
+/**
+ * Caché de la evaluación de la estructura de peones, indexada por el hash
+ * Zobrist de los peones (Board.getPawnKey). La estructura cambia poco entre
+ * nodos vecinos, así que casi todas las consultas aciertan.
+ *
+ * Tabla de acceso directo en arrays primitivos: una clave y una puntuación
+ * empaquetada (ver PieceSquare.pack) por entrada. Cada hilo de búsqueda
+ * tiene la suya.
+ */
+public class PawnTable {
+
+    // Devuelto por probe cuando la clave no está en la tabla
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    private static final int BYTES_PER_ENTRY = 12;
+
+    private final long[] keys;
+    private final int[] scores;
+    private final int mask;
+
+    public PawnTable(int sizeMb) {
+        long entries = Math.max(1, (long) sizeMb * 1024 * 1024 / BYTES_PER_ENTRY);
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        keys = new long[size];
+        scores = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Puntuación guardada para 'key', o NOT_FOUND.
+     * (Una tabla vacía "acierta" la clave 0, la de un tablero sin peones, con
+     * puntuación 0, que es justo la correcta.)
+     */
+    public int probe(long key) {
+        int index = (int) key & mask;
+        return (keys[index] == key) ? scores[index] : NOT_FOUND;
+    }
+
+    public void store(long key, int score) {
+        int index = (int) key & mask;
+        keys[index] = key;
+        scores[index] = score;
+    }
+}
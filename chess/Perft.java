@@ -0,0 +1,158 @@
+package chess;
+
+/**
+ * Perft: cuenta las posiciones hoja hasta una profundidad dada.
+ * Sirve para verificar el generador de movimientos (comparando con
+ * conteos conocidos) y para medir su velocidad en nodos/segundo.
+ *
+ * Uso:
+ *   java chess.Perft <profundidad> [FEN]   desglose por jugada inicial (divide)
+ *   java chess.Perft --suite               posiciones de referencia
+ */
+public class Perft {
+
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * Posiciones de referencia con sus conteos publicados: {FEN, profundidad, nodos}.
+     */
+    private static final String[][] SUITE = {
+        {START_FEN, "5", "4865609"},
+        // "Kiwipete": enroques, clavadas y al paso
+        {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "4", "4085603"},
+        // Finales con al paso que descubre jaque horizontal
+        {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "6", "11030083"},
+        // Promociones y enroques perdidos por captura (y su simétrica)
+        {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", "4", "422333"},
+        {"r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1", "4", "422333"},
+        {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", "4", "2103487"},
+        {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", "4", "3894594"},
+    };
+
+    private static final int MAX_DEPTH = 32;
+
+    private final ChessGame game;
+    // Un buffer por nivel: el recuento no reserva memoria
+    private final int[][] moveBuffers = new int[MAX_DEPTH + 1][Board.MAX_MOVES];
+
+    public Perft(ChessGame game) {
+        this.game = game;
+    }
+
+    /**
+     * Número de posiciones hoja a 'depth' plies de la posición actual.
+     */
+    public long perft(int depth) {
+        int[] moves = moveBuffers[depth];
+        int count = game.getBoard().generateMoves(game.getCurrentTurn(), game, moves);
+        // En el último nivel basta con contar los movimientos legales
+        if (depth <= 1) {
+            return (depth == 1) ? count : 1;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.makeMove(moves[i]);
+            nodes += perft(depth - 1);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Como perft, pero imprime el recuento de cada jugada inicial.
+     */
+    public long divide(int depth) {
+        int[] moves = new int[Board.MAX_MOVES];
+        int count = game.getBoard().generateMoves(game.getCurrentTurn(), game, moves);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            game.makeMove(moves[i]);
+            long nodes = perft(depth - 1);
+            game.unmakeMove();
+            System.out.println(toNotation(moves[i]) + ": " + nodes);
+            total += nodes;
+        }
+        return total;
+    }
+
+    /**
+     * Notación "e2e4" (con la pieza de promoción al final, p.ej. "e7e8q").
+     */
+    private String toNotation(int move) {
+        int from = Move.from(move), to = Move.to(move);
+        String text = game.getSquareNotation(from >> 3, from & 7) + game.getSquareNotation(to >> 3, to & 7);
+        PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            text += (promotion == PieceType.KNIGHT) ? "n" : promotion.name().substring(0, 1).toLowerCase();
+        }
+        return text;
+    }
+
+    // ============= Línea de comandos =============
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            return;
+        }
+        if (args[0].equals("--suite")) {
+            System.exit(runSuite() ? 0 : 1);
+        }
+
+        int depth;
+        try {
+            depth = Integer.parseInt(args[0]);
+        } catch (NumberFormatException e) {
+            depth = 0;
+        }
+        if (depth < 1 || depth > MAX_DEPTH) {
+            printUsage();
+            return;
+        }
+        String fen = (args.length > 1) ? String.join(" ", java.util.Arrays.copyOfRange(args, 1, args.length)) : START_FEN;
+        Perft perft = new Perft(ChessGame.fromFen(fen));
+
+        long start = System.nanoTime();
+        long nodes = perft.divide(depth);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println();
+        System.out.println("Nodos: " + nodes);
+        printSpeed(nodes, elapsed);
+    }
+
+    /**
+     * Ejecuta las posiciones de referencia. Devuelve false si algún conteo no coincide.
+     */
+    private static boolean runSuite() {
+        boolean ok = true;
+        long totalNodes = 0, totalTime = 0;
+        for (String[] test : SUITE) {
+            int depth = Integer.parseInt(test[1]);
+            long expected = Long.parseLong(test[2]);
+
+            long start = System.nanoTime();
+            long nodes = new Perft(ChessGame.fromFen(test[0])).perft(depth);
+            long elapsed = System.nanoTime() - start;
+            totalNodes += nodes;
+            totalTime += elapsed;
+
+            boolean passed = (nodes == expected);
+            ok &= passed;
+            System.out.println((passed ? "OK    " : "FALLO ") + test[0] + " (profundidad " + depth + "): "
+                    + nodes + (passed ? "" : ", esperado " + expected));
+        }
+        System.out.println();
+        printSpeed(totalNodes, totalTime);
+        return ok;
+    }
+
+    private static void printUsage() {
+        System.out.println("Uso: java chess.Perft <profundidad 1-" + MAX_DEPTH + "> [FEN] | --suite");
+    }
+
+    private static void printSpeed(long nodes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("Tiempo: %.3f s, %.0f nodos/s%n", seconds, nodes / Math.max(seconds, 1e-9));
+    }
+}
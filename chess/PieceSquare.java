@@ -0,0 +1,218 @@
+package chess;
+
+/**
+ * Valores de material y tablas pieza-casilla de la evaluación.
+ * Board los usa para mantener la evaluación incremental en setPieceAt;
+ * ChessBot, para ordenar capturas y en la poda delta.
+ *
+ * Evaluación "tapered": cada pieza tiene un valor de medio juego y otro de
+ * final, empaquetados en un solo int (ver pack), y la evaluación los mezcla
+ * según la fase de la partida (material que queda sobre el tablero).
+ */
+public class PieceSquare {
+
+    /**
+     * Tabla de valores base por tipo de pieza (material).
+     */
+    public static final int PAWN_VALUE   = 100;
+    public static final int KNIGHT_VALUE = 320;
+    public static final int BISHOP_VALUE = 330;
+    public static final int ROOK_VALUE   = 500;
+    public static final int QUEEN_VALUE  = 900;
+    public static final int KING_VALUE   = 20000;
+
+    /**
+     * Tablas para dar bonus/penalizaciones a cada pieza según su ubicación.
+     * Estas están "orientadas" para BLANCAS. Para NEGRAS, se invertirá la fila.
+     * Fuentes aproximadas: valores típicos usados en bots de ajedrez simplificados.
+     */
+
+    // Pawn positional table (para BLANCAS)
+    private static final int[][] PAWN_TABLE = {
+        {  0,   0,   0,   0,   0,   0,   0,   0},
+        { 50,  50,  50,  50,  50,  50,  50,  50},
+        { 10,  10,  20,  30,  30,  20,  10,  10},
+        {  5,   5,  10,  25,  25,  10,   5,   5},
+        {  0,   0,   0,  20,  20,   0,   0,   0},
+        {  5,  -5, -10,   0,   0, -10,  -5,   5},
+        {  5,  10,  10, -20, -20,  10,  10,   5},
+        {  0,   0,   0,   0,   0,   0,   0,   0}
+    };
+
+    // Knight positional table
+    private static final int[][] KNIGHT_TABLE = {
+        {-50, -40, -30, -30, -30, -30, -40, -50},
+        {-40, -20,   0,   0,   0,   0, -20, -40},
+        {-30,   0,  10,  15,  15,  10,   0, -30},
+        {-30,   5,  15,  20,  20,  15,   5, -30},
+        {-30,   0,  15,  20,  20,  15,   0, -30},
+        {-30,   5,  10,  15,  15,  10,   5, -30},
+        {-40, -20,   0,   5,   5,   0, -20, -40},
+        {-50, -40, -30, -30, -30, -30, -40, -50}
+    };
+
+    // Bishop positional table
+    private static final int[][] BISHOP_TABLE = {
+        {-20, -10, -10, -10, -10, -10, -10, -20},
+        {-10,   0,   0,   0,   0,   0,   0, -10},
+        {-10,   0,   5,  10,  10,   5,   0, -10},
+        {-10,   5,   5,  10,  10,   5,   5, -10},
+        {-10,   0,  10,  10,  10,  10,   0, -10},
+        {-10,  10,  10,  10,  10,  10,  10, -10},
+        {-10,   5,   0,   0,   0,   0,   5, -10},
+        {-20, -10, -10, -10, -10, -10, -10, -20}
+    };
+
+    // Rook positional table
+    private static final int[][] ROOK_TABLE = {
+        {  0,   0,   0,   0,   0,   0,   0,   0},
+        {  5,  10,  10,  10,  10,  10,  10,   5},
+        { -5,   0,   0,   0,   0,   0,   0,  -5},
+        { -5,   0,   0,   0,   0,   0,   0,  -5},
+        { -5,   0,   0,   0,   0,   0,   0,  -5},
+        { -5,   0,   0,   0,   0,   0,   0,  -5},
+        { -5,   0,   0,   0,   0,   0,   0,  -5},
+        {  0,   0,   0,   5,   5,   0,   0,   0}
+    };
+
+    // Queen positional table
+    private static final int[][] QUEEN_TABLE = {
+        {-20, -10, -10,  -5,  -5, -10, -10, -20},
+        {-10,   0,   0,   0,   0,   0,   0, -10},
+        {-10,   0,   5,   5,   5,   5,   0, -10},
+        { -5,   0,   5,   5,   5,   5,   0,  -5},
+        {  0,   0,   5,   5,   5,   5,   0,  -5},
+        {-10,   5,   5,   5,   5,   5,   0, -10},
+        {-10,   0,   5,   0,   0,   0,   0, -10},
+        {-20, -10, -10,  -5,  -5, -10, -10, -20}
+    };
+
+    // King positional table (medio juego: refugiado tras los peones)
+    private static final int[][] KING_TABLE = {
+        {-30, -40, -40, -50, -50, -40, -40, -30},
+        {-30, -40, -40, -50, -50, -40, -40, -30},
+        {-30, -40, -40, -50, -50, -40, -40, -30},
+        {-30, -40, -40, -50, -50, -40, -40, -30},
+        {-20, -30, -30, -40, -40, -30, -30, -20},
+        {-10, -20, -20, -20, -20, -20, -20, -10},
+        { 20,  20,   0,   0,   0,   0,  20,  20},
+        { 20,  30,  10,   0,   0,  10,  30,  20}
+    };
+
+    // King positional table (final: al centro, para apoyar peones y dar mate)
+    private static final int[][] KING_TABLE_ENDGAME = {
+        {-50, -40, -30, -20, -20, -30, -40, -50},
+        {-30, -20, -10,   0,   0, -10, -20, -30},
+        {-30, -10,  20,  30,  30,  20, -10, -30},
+        {-30, -10,  30,  40,  40,  30, -10, -30},
+        {-30, -10,  30,  40,  40,  30, -10, -30},
+        {-30, -10,  20,  30,  30,  20, -10, -30},
+        {-30, -30,   0,   0,   0,   0, -30, -30},
+        {-50, -30, -30, -30, -30, -30, -30, -50}
+    };
+
+    // Pawn positional table (final: cuanto más avanzado, más cerca de coronar)
+    private static final int[][] PAWN_TABLE_ENDGAME = {
+        {  0,   0,   0,   0,   0,   0,   0,   0},
+        { 80,  80,  80,  80,  80,  80,  80,  80},
+        { 50,  50,  50,  50,  50,  50,  50,  50},
+        { 30,  30,  30,  30,  30,  30,  30,  30},
+        { 20,  20,  20,  20,  20,  20,  20,  20},
+        { 10,  10,  10,  10,  10,  10,  10,  10},
+        {  0,   0,   0,   0,   0,   0,   0,   0},
+        {  0,   0,   0,   0,   0,   0,   0,   0}
+    };
+
+    /**
+     * Fase de la partida: cada caballo o alfil suma 1, cada torre 2 y cada
+     * dama 4, hasta MAX_PHASE con todas las piezas (0 = sólo reyes y peones).
+     */
+    public static final int MAX_PHASE = 24;
+    private static final int[] PHASE = {0, 2, 1, 1, 4, 0}; // orden de PieceType
+
+    /*
+     * Tablas indexadas por código de pieza (ChessPiece.getCode()):
+     * valor material, valor empaquetado (material + bonus por casilla, medio
+     * juego y final, ya espejado y con signo negativo para NEGRAS) y fase.
+     */
+    private static final int[] PIECE_VALUES = new int[ChessPiece.COUNT];
+    private static final int[][] PIECE_SQUARE = new int[ChessPiece.COUNT][64];
+    private static final int[] PIECE_PHASE = new int[ChessPiece.COUNT];
+
+    static {
+        int[] values = {PAWN_VALUE, ROOK_VALUE, KNIGHT_VALUE, BISHOP_VALUE, QUEEN_VALUE, KING_VALUE};
+        int[][][] middlegame = {PAWN_TABLE, ROOK_TABLE, KNIGHT_TABLE, BISHOP_TABLE, QUEEN_TABLE, KING_TABLE};
+        int[][][] endgame = {PAWN_TABLE_ENDGAME, ROOK_TABLE, KNIGHT_TABLE, BISHOP_TABLE, QUEEN_TABLE, KING_TABLE_ENDGAME};
+        for (PieceType type : PieceType.values()) {
+            int t = type.ordinal();
+            // El material del rey no se suma: siempre hay uno de cada color
+            int material = (type == PieceType.KING) ? 0 : values[t];
+            for (PieceColor color : PieceColor.values()) {
+                int code = ChessPiece.code(type, color);
+                int sign = (color == PieceColor.WHITE) ? 1 : -1;
+                PIECE_VALUES[code] = values[t];
+                PIECE_PHASE[code] = PHASE[t];
+                for (int sq = 0; sq < 64; sq++) {
+                    int row = sq >> 3, col = sq & 7;
+                    // Si es NEGRAS, espejamos la tabla
+                    // (fila 0 pasa a ser 7, fila 1 pasa a ser 6, etc.)
+                    int tableRow = (color == PieceColor.BLACK) ? 7 - row : row;
+                    PIECE_SQUARE[code][sq] = sign * pack(material + middlegame[t][tableRow][col],
+                                                         material + endgame[t][tableRow][col]);
+                }
+            }
+        }
+    }
+
+    private PieceSquare() {
+    }
+
+    /**
+     * Valor material de la pieza con código 'code'.
+     */
+    public static int material(int code) {
+        return PIECE_VALUES[code];
+    }
+
+    /**
+     * Material más bonus posicional de la pieza 'code' en la casilla 'sq',
+     * empaquetado (ver pack) y positivo para BLANCAS, negativo para NEGRAS.
+     */
+    public static int value(int code, int sq) {
+        return PIECE_SQUARE[code][sq];
+    }
+
+    /**
+     * Lo que suma la pieza 'code' a la fase de la partida.
+     */
+    public static int phase(int code) {
+        return PIECE_PHASE[code];
+    }
+
+    // --- Puntuaciones empaquetadas: medio juego en los 16 bits bajos, final en los altos ---
+
+    /*
+     * Las sumas y restas de valores empaquetados suman cada mitad por separado,
+     * siempre que cada una quepa en 16 bits con signo.
+     */
+    public static int pack(int middlegame, int endgame) {
+        return (endgame << 16) + middlegame;
+    }
+
+    public static int middlegame(int packed) {
+        return (short) packed;
+    }
+
+    public static int endgame(int packed) {
+        return (packed + 0x8000) >> 16;
+    }
+
+    /**
+     * Mezcla las dos mitades según la fase: todo medio juego con MAX_PHASE,
+     * todo final con 0.
+     */
+    public static int blend(int packed, int phase) {
+        int endgame = endgame(packed);
+        return endgame + (middlegame(packed) - endgame) * Math.min(phase, MAX_PHASE) / MAX_PHASE;
+    }
+}
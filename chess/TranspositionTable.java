@@ -0,0 +1,104 @@
+package chess;
+
+/**
+ * Tabla de transposiciones de tamaño fijo (potencia de dos) guardada en
+ * arrays primitivos: una clave y un long empaquetado por entrada.
+ *
+ * Cada cubo tiene dos entradas: la primera se reemplaza sólo por búsquedas
+ * de igual o mayor profundidad, la segunda se reemplaza siempre.
+ *
+ * Se comparte entre los hilos de la búsqueda sin cerrojos: en keys se guarda
+ * clave ^ dato, así una entrada escrita a medias por dos hilos a la vez
+ * no coincide con ninguna clave y se ignora.
+ */
+public class TranspositionTable {
+
+    // Tipo de cota de la puntuación guardada (0 = entrada vacía)
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2; // la puntuación real es >= score (fallo alto)
+    public static final int BOUND_UPPER = 3; // la puntuación real es <= score (fallo bajo)
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    /*
+     * Formato de data:
+     *  bits 0-19  mejor movimiento (ver Move)
+     *  bits 20-21 tipo de cota
+     *  bits 22-29 profundidad
+     *  bits 32-63 puntuación
+     */
+    private final long[] keys; // clave ^ dato
+    private final long[] data;
+    private final int bucketMask;
+
+    public TranspositionTable(int sizeMb) {
+        long entries = Math.max(2, (long) sizeMb * 1024 * 1024 / BYTES_PER_ENTRY);
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        keys = new long[size];
+        data = new long[size];
+        bucketMask = (size / 2) - 1;
+    }
+
+    /**
+     * Devuelve el dato guardado para 'key', o 0 si no está en la tabla.
+     */
+    public long probe(long key) {
+        int index = bucketIndex(key);
+        for (int i = index; i < index + 2; i++) {
+            long entry = data[i];
+            if (entry != 0 && (keys[i] ^ entry) == key) return entry;
+        }
+        return 0;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = bucketIndex(key);
+        // La entrada de profundidad sólo se sustituye por una búsqueda igual o más profunda,
+        // aunque sea de la misma posición; si no, se usa la de reemplazo siempre
+        long old = data[index];
+        if (depth < depth(old)) {
+            // Conservar el mejor movimiento anterior si esta búsqueda no encontró uno
+            if (move == 0 && (keys[index] ^ old) == key) {
+                move = move(old);
+            }
+            index++;
+            old = data[index];
+        }
+        if (move == 0 && (keys[index] ^ old) == key) {
+            move = move(old);
+        }
+        long entry = (move & 0xFFFFFL)
+                   | ((long) bound << 20)
+                   | ((long) Math.min(depth, 255) << 22)
+                   | ((long) score << 32);
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+    }
+
+    private int bucketIndex(long key) {
+        return ((int) key & bucketMask) << 1;
+    }
+
+    // --- Lectura de un dato devuelto por probe ---
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 20) & 0x3;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 22) & 0xFF;
+    }
+
+    public static int score(long data) {
+        return (int) (data >> 32);
+    }
+}
@@ -0,0 +1,66 @@
+package chess;
+
+import java.util.Random;
+
+/**
+ * Claves aleatorias de 64 bits para el hash Zobrist de una posición.
+ * El hash es el XOR de las claves de cada pieza en su casilla, del turno,
+ * de los enroques disponibles y de la columna de captura al paso,
+ * así que se actualiza con un XOR por cada cambio.
+ */
+public class Zobrist {
+
+    // Semilla fija: el mismo tablero da siempre el mismo hash
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    // [código de pieza][casilla]
+    private static final long[][] PIECES = new long[ChessPiece.COUNT][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    // Bits del índice de CASTLING
+    public static final int WHITE_KINGSIDE  = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE  = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    static {
+        Random random = new Random(SEED);
+        for (long[] squares : PIECES) {
+            for (int sq = 0; sq < 64; sq++) {
+                squares[sq] = random.nextLong();
+            }
+        }
+        // Sin enroques disponibles no se altera el hash
+        for (int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int col = 0; col < 8; col++) {
+            EN_PASSANT[col] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int pieceCode, int sq) {
+        return PIECES[pieceCode][sq];
+    }
+
+    /**
+     * Clave de los enroques disponibles (combinación de WHITE_KINGSIDE, ...).
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int col) {
+        return EN_PASSANT[col];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}